@@ -0,0 +1,48 @@
+package com.example.api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PERSON_BY_ID = "personById";
+    public static final String BOOK_BY_ID = "bookById";
+    public static final String USER_STATUS = "userStatus";
+    public static final String FILE_METADATA = "fileMetadata";
+    public static final String FILE_METADATA_MISSES = "fileMetadataMisses";
+
+    // Caffeine limita por tamanho (admissão W-TinyLFU, que considera a frequência de acesso) e por TTL;
+    // recordStats alimenta as métricas cache.gets/cache.evictions do actuator
+    @Value("${api.cache.by-id.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String byIdSpec = "";
+
+    // TTL curto: bloquear ou desabilitar um usuário passa a valer em poucos segundos
+    @Value("${api.cache.user-status.spec:maximumSize=10000,expireAfterWrite=30s,recordStats}")
+    private String userStatusSpec = "";
+
+    // Sem TTL: toda gravação passa pelo @CachePut, então a entrada só sai por tamanho
+    @Value("${api.cache.file-metadata.spec:maximumSize=100000,recordStats}")
+    private String fileMetadataSpec = "";
+
+    // Nomes ausentes do índice: TTL curto, o que limita quanto tempo outra instância demora a ver um upload novo
+    @Value("${api.cache.file-metadata-misses.spec:maximumSize=100000,expireAfterWrite=30s,recordStats}")
+    private String fileMetadataMissesSpec = "";
+
+    @Bean
+    public CacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager(PERSON_BY_ID, BOOK_BY_ID);
+        cacheManager.setCaffeine(Caffeine.from(byIdSpec));
+        cacheManager.registerCustomCache(USER_STATUS, Caffeine.from(userStatusSpec).build());
+        cacheManager.registerCustomCache(FILE_METADATA, Caffeine.from(fileMetadataSpec).build());
+        cacheManager.registerCustomCache(FILE_METADATA_MISSES, Caffeine.from(fileMetadataMissesSpec).build());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
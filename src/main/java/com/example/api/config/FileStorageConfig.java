@@ -3,11 +3,56 @@ package com.example.api.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "file")
 public class FileStorageConfig {
+
+    // plain: um arquivo por nome; content-addressed: blobs por SHA-256, conteúdo idêntico gravado uma única vez
+    public enum StorageMode { PLAIN, CONTENT_ADDRESSED }
+
+    // flat: todos os arquivos direto em upload-dir; sharded: upload-dir/ab/cd/<nome>, pelo SHA-256 do nome
+    public enum Layout { FLAT, SHARDED }
+
     private String uploadDir;
 
+    private StorageMode storageMode = StorageMode.PLAIN;
+
+    private Layout layout = Layout.SHARDED;
+
+    // Tamanho máximo de um arquivo em qualquer forma de upload (multipart, PUT em streaming, retomável)
+    private DataSize maxFileSize = DataSize.ofMegabytes(200);
+
+    // Máximo de arquivos de uma mesma requisição /uploadMultipleFiles gravados ao mesmo tempo
+    private int uploadParallelism = 4;
+
+    // Variantes gzip de arquivos de texto, geradas em segundo plano e servidas por Accept-Encoding
+    private boolean compressVariants = true;
+
+    private long compressMinSize = 1024;
+
+    // Sessões de upload retomável sem atividade por mais que isso são descartadas
+    private Duration uploadSessionTtl = Duration.ofHours(24);
+
+    // Quantos metadados (os uploads mais recentes) carregar em memória na inicialização
+    private int metadataWarmupSize = 100_000;
+
+    // Cache em memória de arquivos pequenos e muito baixados: orçamento total e tamanho máximo por arquivo
+    private long hotCacheMaxBytes = 64L * 1024 * 1024;
+
+    private long hotCacheMaxFileSize = 256 * 1024;
+
+    // Downloads de um arquivo até ele ganhar um buffer no cache; antes disso é servido do disco
+    private int hotCacheAdmissionHits = 3;
+
+    // Downloads a partir desse tamanho, sem sendfile, usam escrita não bloqueante (WriteListener)
+    private long asyncDownloadThreshold = 1024 * 1024;
+
+    private Duration asyncDownloadTimeout = Duration.ofMinutes(30);
+
     public String getUploadDir() {
         return uploadDir;
     }
@@ -15,4 +60,108 @@ public class FileStorageConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    public int getUploadParallelism() {
+        return uploadParallelism;
+    }
+
+    public void setUploadParallelism(int uploadParallelism) {
+        this.uploadParallelism = uploadParallelism;
+    }
+
+    public boolean isCompressVariants() {
+        return compressVariants;
+    }
+
+    public void setCompressVariants(boolean compressVariants) {
+        this.compressVariants = compressVariants;
+    }
+
+    public long getCompressMinSize() {
+        return compressMinSize;
+    }
+
+    public void setCompressMinSize(long compressMinSize) {
+        this.compressMinSize = compressMinSize;
+    }
+
+    public Duration getUploadSessionTtl() {
+        return uploadSessionTtl;
+    }
+
+    public void setUploadSessionTtl(Duration uploadSessionTtl) {
+        this.uploadSessionTtl = uploadSessionTtl;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    public void setLayout(Layout layout) {
+        this.layout = layout;
+    }
+
+    public int getMetadataWarmupSize() {
+        return metadataWarmupSize;
+    }
+
+    public void setMetadataWarmupSize(int metadataWarmupSize) {
+        this.metadataWarmupSize = metadataWarmupSize;
+    }
+
+    public long getHotCacheMaxBytes() {
+        return hotCacheMaxBytes;
+    }
+
+    public void setHotCacheMaxBytes(long hotCacheMaxBytes) {
+        this.hotCacheMaxBytes = hotCacheMaxBytes;
+    }
+
+    public long getHotCacheMaxFileSize() {
+        return hotCacheMaxFileSize;
+    }
+
+    public void setHotCacheMaxFileSize(long hotCacheMaxFileSize) {
+        this.hotCacheMaxFileSize = hotCacheMaxFileSize;
+    }
+
+    public int getHotCacheAdmissionHits() {
+        return hotCacheAdmissionHits;
+    }
+
+    public void setHotCacheAdmissionHits(int hotCacheAdmissionHits) {
+        this.hotCacheAdmissionHits = hotCacheAdmissionHits;
+    }
+
+    public long getAsyncDownloadThreshold() {
+        return asyncDownloadThreshold;
+    }
+
+    public void setAsyncDownloadThreshold(long asyncDownloadThreshold) {
+        this.asyncDownloadThreshold = asyncDownloadThreshold;
+    }
+
+    public Duration getAsyncDownloadTimeout() {
+        return asyncDownloadTimeout;
+    }
+
+    public void setAsyncDownloadTimeout(Duration asyncDownloadTimeout) {
+        this.asyncDownloadTimeout = asyncDownloadTimeout;
+    }
 }
@@ -2,7 +2,12 @@ package com.example.api.config;
 
 import com.example.api.security.jwt.JwtTokenFilter;
 import com.example.api.security.jwt.JwtTokenProvider;
+import com.example.api.security.password.BoundedPasswordEncoder;
+import com.example.api.security.ratelimit.AuthRateLimitFilter;
+import com.example.api.security.ratelimit.TokenBucketLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,8 +31,45 @@ public class SecurityConfig {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    // Pool dedicado ao PBKDF2: por padrão uma thread por núcleo e uma fila de 4 pedidos por thread
+    @Value("${security.password-hashing.pool-size:0}")
+    private int passwordPoolSize = 0;
+
+    @Value("${security.password-hashing.queue-capacity:0}")
+    private int passwordQueueCapacity = 0;
+
+    @Value("${security.password-hashing.timeout:2000}")
+    private long passwordTimeout = 2000;
+
+    @Value("${security.password-hashing.retry-after:1}")
+    private long passwordRetryAfter = 1;
+
+    // Limites de /auth/signin e /auth/refresh: capacity é a rajada, refill-per-minute a taxa sustentada
+    @Value("${security.rate-limit.ip.capacity:20}")
+    private long ipCapacity = 20;
+
+    @Value("${security.rate-limit.ip.refill-per-minute:60}")
+    private long ipRefillPerMinute = 60;
+
+    // Por usuário, somando todos os IPs
+    @Value("${security.rate-limit.username.capacity:30}")
+    private long usernameCapacity = 30;
+
+    @Value("${security.rate-limit.username.refill-per-minute:30}")
+    private long usernameRefillPerMinute = 30;
+
+    // Por IP + usuário
+    @Value("${security.rate-limit.ip-username.capacity:5}")
+    private long ipUsernameCapacity = 5;
+
+    @Value("${security.rate-limit.ip-username.refill-per-minute:10}")
+    private long ipUsernameRefillPerMinute = 10;
+
+    @Value("${security.rate-limit.maximum-keys:100000}")
+    private long rateLimitMaximumKeys = 100000;
+
     @Bean
-    PasswordEncoder passwordEncoder() {
+    PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
         // Cria um mapeamento de codificadores de senha
         Map<String, PasswordEncoder> encoders = new HashMap<>();
 
@@ -38,7 +80,12 @@ public class SecurityConfig {
 
         DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
         passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2Encoder); // Define PBKDF2 como o padrão
-        return passwordEncoder; // Retorna o codificador de senha
+
+        // Executa o hash fora das threads do Tomcat, com admissão limitada
+        int poolSize = passwordPoolSize > 0 ? passwordPoolSize : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = passwordQueueCapacity > 0 ? passwordQueueCapacity : poolSize * 4;
+        return new BoundedPasswordEncoder(passwordEncoder, poolSize, queueCapacity,
+                passwordTimeout, passwordRetryAfter, meterRegistry); // Retorna o codificador de senha
     }
 
     @Bean
@@ -51,11 +98,16 @@ public class SecurityConfig {
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         JwtTokenFilter customFilter = new JwtTokenFilter(tokenProvider);
+        AuthRateLimitFilter rateLimitFilter = new AuthRateLimitFilter(
+                new TokenBucketLimiter(ipCapacity, ipRefillPerMinute, rateLimitMaximumKeys),
+                new TokenBucketLimiter(usernameCapacity, usernameRefillPerMinute, rateLimitMaximumKeys),
+                new TokenBucketLimiter(ipUsernameCapacity, ipUsernameRefillPerMinute, rateLimitMaximumKeys));
 
         //@formatter:off
         return http
                 .httpBasic(basic -> basic.disable()) // Desabilita a autenticação básica HTTP
                 .csrf(csrf -> csrf.disable()) // Desabilita a proteção contra CSRF (não necessária para APIs stateless)
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class) // Limita tentativas de signin/refresh antes do hash de senha
                 .addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class) // Adiciona o filtro JWT antes do filtro de autenticação por nome/usuário e senha
                 .sessionManagement(
                         session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Define a política de criação de sessão como stateless (não mantém sessão do usuário)
@@ -64,10 +116,12 @@ public class SecurityConfig {
                                 .requestMatchers(
                                         "/auth/signin",
                                         "/auth/refresh/**",
+                                        "/auth/revoke",
                                         "/swagger-ui/**",
                                         "/v3/api-docs/**"
                                 ).permitAll() // Permite essas rotas sem autenticação
                                 .requestMatchers("/api/**").authenticated() // Exige autenticação para qualquer rota começando com "/api"
+                                .requestMatchers("/actuator/**").authenticated() // Métricas (ex.: hit rate dos caches) só para usuários autenticados
                                 .requestMatchers("/users").denyAll() // Bloqueia completamente o acesso à rota "/users"
                 )
                 .cors(cors -> {}) // Habilita suporte para CORS
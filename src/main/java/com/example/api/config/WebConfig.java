@@ -1,6 +1,9 @@
 package com.example.api.config;
 
+import com.example.api.serialization.converter.LeanJackson2HttpMessageConverter;
 import com.example.api.serialization.converter.YamlJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -15,13 +18,20 @@ import java.util.List;
 public class WebConfig implements WebMvcConfigurer{
 
     private static final MediaType MEDIA_TYPE_APPLICATION_YML = MediaType.valueOf("application/x-yaml");
+    private static final MediaType MEDIA_TYPE_APPLICATION_JSON_LEAN =
+            MediaType.valueOf(com.example.api.util.MediaType.APPLICATION_JSON_LEAN);
 
     @Value("${cors.originPatterns:default}")
     private String corsOriginPatterns = "";
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
         converters.add(new YamlJackson2HttpMessageConverter());
+        // Precisa vir antes do conversor JSON padrão, que também aceita application/*+json
+        converters.add(0, new LeanJackson2HttpMessageConverter(objectMapper));
     }
 
     @Override
@@ -58,6 +68,7 @@ public class WebConfig implements WebMvcConfigurer{
                 .mediaType("json", MediaType.APPLICATION_JSON)
                 .mediaType("xml", MediaType.APPLICATION_XML)
                 .mediaType("x-yaml", MEDIA_TYPE_APPLICATION_YML)
+                .mediaType("lean", MEDIA_TYPE_APPLICATION_JSON_LEAN)
         ;
     }
 }
@@ -40,6 +40,15 @@ public class AuthController {
         return token;
     }
 
+    @Operation(summary = "Revokes an access or refresh token before it expires")
+    @PostMapping(value = "/revoke")
+    public ResponseEntity<?> revoke(@RequestHeader("Authorization") String token) {
+        if (token == null || token.isBlank())
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
+        authServices.revoke(token);
+        return ResponseEntity.noContent().build();
+    }
+
     private boolean checkIfParamsIsNotNull(String username, String refreshToken) {
         return refreshToken == null || refreshToken.isBlank() ||
                 username == null || username.isBlank();
@@ -1,7 +1,13 @@
 package com.example.api.controllers;
 
 import com.example.api.data.vo.v1.BookVO;
+import com.example.api.data.vo.v1.CursorPageVO;
+import com.example.api.data.vo.v1.LeanPageVO;
+import com.example.api.data.vo.v1.SliceVO;
+import com.example.api.data.vo.v1.TotalCountVO;
+import com.example.api.serialization.export.ExportFormat;
 import com.example.api.services.BookServices;
+import com.example.api.util.ETags;
 import com.example.api.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -15,8 +21,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/books/v1")
@@ -38,6 +46,7 @@ public class BookController {
                                             array = @ArraySchema(schema = @Schema(implementation = BookVO.class))
                                     )
                             }),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
@@ -52,10 +61,126 @@ public class BookController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "title"));
-        return ResponseEntity.ok(service.findAll(pageable));
+        // O HttpEntityMethodProcessor responde 304 sem serializar quando o If-None-Match bate com o ETag;
+        // a página já foi consultada para calcular o ETag (ver ETags.of)
+        var pagedModel = service.findAll(pageable);
+        return ETags.ok(pagedModel).body(pagedModel);
     }
 
 
+    @GetMapping(params = "links=none",
+            produces = { MediaType.APPLICATION_JSON_LEAN, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Finds all Book without hypermedia",
+            description = "Finds all Book as a flat array plus page metadata, skipping _links (links=none)",
+            tags = {"Book"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = LeanPageVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<LeanPageVO<BookVO>> findAllLean(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "title"));
+        return ResponseEntity.ok(service.findAllLean(pageable));
+    }
+
+    @GetMapping(value = "/slice",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Finds all Book without total count",
+            description = "Finds all Book as a slice with only a has-next flag, skipping the COUNT query",
+            tags = {"Book"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = SliceVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<SliceVO<BookVO>> findAllSlice(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "title"));
+        return ResponseEntity.ok(service.findAllSlice(pageable));
+    }
+
+    @GetMapping(value = "/count",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Counts all Book", description = "Returns the total of Book, cached for a short period",
+            tags = {"Book"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = TotalCountVO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public TotalCountVO count() {
+        return service.count();
+    }
+
+    @GetMapping(value = "/export")
+    @Operation(summary = "Exports all Books",
+            description = "Streams every book as NDJSON (format=ndjson) or CSV (format=csv) with constant memory use",
+            tags = {"Book"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200", content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON),
+                            @Content(mediaType = MediaType.TEXT_CSV)
+                    }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format
+    ) {
+        var exportFormat = ExportFormat.of(format);
+
+        StreamingResponseBody body = output -> service.export(exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"books." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/cursor",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Finds all Book using cursor pagination",
+            description = "Finds all Book ordered by title using an opaque keyset cursor, so deep pages cost the same as the first one",
+            tags = {"Book"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = CursorPageVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<CursorPageVO<BookVO>> findAllByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        return ResponseEntity.ok(service.findAllByCursor(cursor, size, sortDirection));
+    }
+
     @GetMapping(value = "/{id}",
             produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML  })
     @Operation(summary = "Finds a Book", description = "Finds a Book",
@@ -65,14 +190,16 @@ public class BookController {
                             content = @Content(schema = @Schema(implementation = BookVO.class))
                     ),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             }
     )
-    public BookVO findById(@PathVariable(value = "id") Long id) {
-        return service.findById(id);
+    public ResponseEntity<BookVO> findById(@PathVariable(value = "id") Long id) {
+        var vo = service.findById(id);
+        return ETags.ok(vo).body(vo);
     }
 
     @PostMapping(
@@ -107,11 +234,22 @@ public class BookController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             }
     )
-    public BookVO update(@RequestBody BookVO book) {
-        return service.update(book);
+    public ResponseEntity<BookVO> update(
+            @RequestBody BookVO book,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        if (ifMatch != null) {
+            // a versão que casou com o If-Match; o service confere que ela ainda é a atual ao gravar
+            var current = service.findById(book.getKey());
+            ETags.checkIfMatch(ifMatch, current);
+            book.setVersion(current.getVersion());
+        }
+        var vo = service.update(book);
+        return ETags.ok(vo).body(vo);
     }
 
 
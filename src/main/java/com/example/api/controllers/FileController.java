@@ -1,33 +1,48 @@
 package com.example.api.controllers;
 
 import com.example.api.data.vo.v1.UploadFileResponseVO;
+import com.example.api.data.vo.v1.UploadSessionVO;
+import com.example.api.services.FileDownloadServices;
 import com.example.api.services.FileStorageServices;
+import com.example.api.services.FileVariantServices;
+import com.example.api.services.ResumableUploadServices;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 @Tag(name = "File Endpoint")
 @RestController
 @RequestMapping("/api/file/v1")
 public class FileController {
 
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+
     private Logger logger = Logger.getLogger(FileController.class.getName());
 
     @Autowired
     private FileStorageServices service;
 
+    @Autowired
+    private FileDownloadServices downloadServices;
+
+    @Autowired
+    private ResumableUploadServices resumableUploads;
+
     @PostMapping("/uploadFile")
     public UploadFileResponseVO uploadFile(@RequestParam("file") MultipartFile file) {
         logger.info("Storing file to disk");
@@ -43,40 +58,129 @@ public class FileController {
                         filename, fileDownloadUri, file.getContentType(), file.getSize());
     }
 
+    // Upload em streaming: o corpo da requisição é o próprio arquivo, gravado direto no diretório de destino
+    // sem passar pelo temporário do multipart
+    @PutMapping("/uploadFile/{filename:.+}")
+    public UploadFileResponseVO uploadFileStream(
+            @PathVariable String filename, HttpServletRequest request) throws IOException {
+        logger.info("Streaming file to disk");
+
+        var response = service.storeStream(filename, request.getContentType(), request.getInputStream());
+        response.setFileDownloadUri(ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/file/v1/downloadFile/")
+                .path(response.getFileName())
+                .toUriString());
+        return response;
+    }
+
+    // Upload retomável (modelo tus): cria a sessão com o tamanho total, envia pedaços com PATCH
+    // no Upload-Offset atual (HEAD informa onde parou) e conclui com POST .../complete
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessionVO> createUpload(
+            @RequestParam String filename,
+            @RequestParam(required = false) String contentType,
+            @RequestHeader(UPLOAD_LENGTH) long length) {
+        logger.info("Creating a resumable upload");
+
+        var session = resumableUploads.create(filename, contentType, length);
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}").buildAndExpand(session.getId()).toUri();
+        return ResponseEntity.created(location)
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .body(session);
+    }
+
+    @RequestMapping(value = "/uploads/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> uploadStatus(@PathVariable String id) {
+        var session = resumableUploads.status(id);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .build();
+    }
+
+    @PatchMapping("/uploads/{id}")
+    public ResponseEntity<Void> appendUpload(
+            @PathVariable String id,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request) throws IOException {
+        logger.info("Receiving a chunk of a resumable upload");
+
+        var session = resumableUploads.append(id, offset, request.getInputStream());
+        return ResponseEntity.noContent()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .build();
+    }
+
+    @PostMapping("/uploads/{id}/complete")
+    public UploadFileResponseVO completeUpload(@PathVariable String id) {
+        logger.info("Completing a resumable upload");
+
+        var response = resumableUploads.complete(id);
+        response.setFileDownloadUri(ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/file/v1/downloadFile/")
+                .path(response.getFileName())
+                .toUriString());
+        return response;
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String id) {
+        resumableUploads.abort(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/uploadMultipleFiles")
     public List<UploadFileResponseVO> uploadMultipleFiles(
             @RequestParam("files") MultipartFile[] files) {
         logger.info("Storing files to disk");
 
-        return Arrays.asList(files)
-                .stream()
-                .map(file -> uploadFile(file))
-                .collect(Collectors.toList());
+        // A URI é montada aqui: o contexto da requisição só existe nesta thread
+        var responses = service.storeFiles(Arrays.asList(files));
+        responses.stream()
+                .filter(response -> response.getError() == null)
+                .forEach(response -> response.setFileDownloadUri(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/file/v1/downloadFile/")
+                        .path(response.getFileName())
+                        .toUriString()));
+        return responses;
+    }
+
+    // Vários arquivos em um único ZIP gerado em streaming (?files=a.txt&files=b.png)
+    @GetMapping("/downloadZip")
+    public ResponseEntity<StreamingResponseBody> downloadZip(@RequestParam("files") List<String> filenames) {
+        logger.info("Streaming files as a zip archive");
+
+        var entries = service.loadFiles(filenames);
+
+        StreamingResponseBody body = output -> downloadServices.writeZip(entries, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"files.zip\"")
+                .body(body);
     }
 
     //MY_file.txt
+    // Suporta Range/If-Range (206) para retomar ou buscar trechos de arquivos grandes;
+    // arquivos de texto saem da variante gzip quando o cliente envia Accept-Encoding: gzip
     @GetMapping("/downloadFile/{filename:.+}")
-    public ResponseEntity<Resource> downloadFile(
-            @PathVariable String filename, HttpServletRequest request) {
+    public void downloadFile(
+            @PathVariable String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
 
         logger.info("Reading a file on disk");
 
-        Resource resource = service.loadFileAsResource(filename);
-        String contentType = "";
-
-        try {
-            contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-        } catch (Exception e) {
-            logger.info("Could not determine file type!");
+        var metadata = service.loadMetadata(filename);
+        // HEAD de arquivo indexado é respondido só com o índice, sem tocar o sistema de arquivos, quando não
+        // pode haver variante gzip; senão escolhe a mesma representação do GET (Vary, Content-Encoding, ETag -gz)
+        if (metadata != null && "HEAD".equals(request.getMethod()) && !FileVariantServices.isCompressible(filename)) {
+            downloadServices.send(null, null, filename, metadata, request, response);
+            return;
         }
 
-        if (contentType.isBlank()) contentType = "application/octet-stream";
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(
-                        HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+        var file = service.loadFile(filename);
+        downloadServices.send(file, service.loadGzipVariant(file), filename, metadata, request, response);
     }
 }
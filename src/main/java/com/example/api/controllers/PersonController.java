@@ -1,7 +1,13 @@
 package com.example.api.controllers;
 
+import com.example.api.data.vo.v1.CursorPageVO;
+import com.example.api.data.vo.v1.LeanPageVO;
 import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.data.vo.v1.SliceVO;
+import com.example.api.data.vo.v1.TotalCountVO;
+import com.example.api.serialization.export.ExportFormat;
 import com.example.api.services.PersonServices;
+import com.example.api.util.ETags;
 import com.example.api.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -16,8 +22,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -41,6 +49,7 @@ public class PersonController {
                                             array = @ArraySchema(schema = @Schema(implementation = PersonVO.class))
                                     )
                             }),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
@@ -57,7 +66,173 @@ public class PersonController {
                 ? Sort.Direction.DESC : Sort.Direction.ASC;
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
-        return ResponseEntity.ok(service.findAll(pageable));
+        // O HttpEntityMethodProcessor responde 304 sem serializar quando o If-None-Match bate com o ETag;
+        // a página já foi consultada para calcular o ETag (ver ETags.of)
+        var pagedModel = service.findAll(pageable);
+        return ETags.ok(pagedModel).body(pagedModel);
+    }
+
+    @GetMapping(params = "links=none",
+            produces = { MediaType.APPLICATION_JSON_LEAN, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Finds all People without hypermedia",
+            description = "Finds all People as a flat array plus page metadata, skipping _links (links=none)",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = LeanPageVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<LeanPageVO<PersonVO>> findAllLean(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        return ResponseEntity.ok(service.findAllLean(pageable));
+    }
+
+    @GetMapping(value = "/slice",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Finds all People without total count",
+            description = "Finds all People as a slice with only a has-next flag, skipping the COUNT query",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = SliceVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<SliceVO<PersonVO>> findAllSlice(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        return ResponseEntity.ok(service.findAllSlice(pageable));
+    }
+
+    @GetMapping(value = "/findPersonByName/{firstName}/slice",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Finds People by Name without total count",
+            description = "Finds People by Name as a slice with only a has-next flag, skipping the COUNT query",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = SliceVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<SliceVO<PersonVO>> findPersonByNameSlice(
+            @PathVariable(value = "firstName") String firstName,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        return ResponseEntity.ok(service.findPersonByNameSlice(firstName, pageable));
+    }
+
+    @GetMapping(value = "/count",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Counts all People", description = "Returns the total of People, cached for a short period",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = TotalCountVO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public TotalCountVO count() {
+        return service.count();
+    }
+
+    @GetMapping(value = "/export")
+    @Operation(summary = "Exports all People",
+            description = "Streams every person as NDJSON (format=ndjson) or CSV (format=csv) with constant memory use",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200", content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON),
+                            @Content(mediaType = MediaType.TEXT_CSV)
+                    }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format
+    ) {
+        var exportFormat = ExportFormat.of(format);
+
+        StreamingResponseBody body = output -> service.export(exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"people." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/cursor",
+            produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+    @Operation(summary = "Finds all People using cursor pagination",
+            description = "Finds all People ordered by firstName using an opaque keyset cursor, so deep pages cost the same as the first one",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = CursorPageVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<CursorPageVO<PersonVO>> findAllByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        return ResponseEntity.ok(service.findAllByCursor(cursor, size, sortDirection));
+    }
+
+    @GetMapping(value = "/findPersonByName/{firstName}", params = "links=none",
+            produces = { MediaType.APPLICATION_JSON_LEAN, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Finds People by Name without hypermedia",
+            description = "Finds People by Name as a flat array plus page metadata, skipping _links (links=none)",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = LeanPageVO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            }
+    )
+    public ResponseEntity<LeanPageVO<PersonVO>> findPersonByNameLean(
+            @PathVariable(value = "firstName") String firstName,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        return ResponseEntity.ok(service.findPersonByNameLean(firstName, pageable));
     }
 
     @GetMapping(value = "/findPersonByName/{firstName}",
@@ -72,6 +247,7 @@ public class PersonController {
                                             array = @ArraySchema(schema = @Schema(implementation = PersonVO.class))
                                     )
                             }),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
@@ -89,7 +265,8 @@ public class PersonController {
                 ? Sort.Direction.DESC : Sort.Direction.ASC;
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
-        return ResponseEntity.ok(service.findPersonByName(firstName, pageable));
+        var pagedModel = service.findPersonByName(firstName, pageable);
+        return ETags.ok(pagedModel).body(pagedModel);
     }
 
     @CrossOrigin(origins = "http://localhost:8080")
@@ -102,14 +279,16 @@ public class PersonController {
                             content = @Content(schema = @Schema(implementation = PersonVO.class))
                     ),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             }
     )
-    public PersonVO findById(@PathVariable(value = "id") Long id) {
-        return service.findById(id);
+    public ResponseEntity<PersonVO> findById(@PathVariable(value = "id") Long id) {
+        var vo = service.findById(id);
+        return ETags.ok(vo).body(vo);
     }
 
     @CrossOrigin(origins = "http://localhost:8080")
@@ -145,11 +324,22 @@ public class PersonController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             }
     )
-    public PersonVO update(@RequestBody PersonVO person) {
-        return service.update(person);
+    public ResponseEntity<PersonVO> update(
+            @RequestBody PersonVO person,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        if (ifMatch != null) {
+            // a versão que casou com o If-Match; o service confere que ela ainda é a atual ao gravar
+            var current = service.findById(person.getKey());
+            ETags.checkIfMatch(ifMatch, current);
+            person.setVersion(current.getVersion());
+        }
+        var vo = service.update(person);
+        return ETags.ok(vo).body(vo);
     }
 
     @PatchMapping(value = "/{id}",
@@ -1,5 +1,6 @@
 package com.example.api.data.vo.v1;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.github.dozermapper.core.Mapping;
@@ -9,7 +10,7 @@ import java.io.Serializable;
 import java.util.Date;
 
 @JsonPropertyOrder({"id", "author", "launchDate", "price", "title"})
-public class BookVO extends RepresentationModel<BookVO> implements Serializable {
+public class BookVO extends RepresentationModel<BookVO> implements Serializable, VersionedVO {
 
     private static final long serialVersionUID = 1L;
 
@@ -21,6 +22,10 @@ public class BookVO extends RepresentationModel<BookVO> implements Serializable
     private Double price;
     private String title;
 
+    // Não serializada: exposta apenas como ETag
+    @JsonIgnore
+    private Long version;
+
     public BookVO() {}
 
     public Long getKey() {
@@ -63,6 +68,14 @@ public class BookVO extends RepresentationModel<BookVO> implements Serializable
         this.title = title;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
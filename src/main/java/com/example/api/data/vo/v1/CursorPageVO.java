@@ -0,0 +1,50 @@
+package com.example.api.data.vo.v1;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Página obtida por keyset (cursor); nextCursor é nulo na última página
+@JsonPropertyOrder({"content", "size", "nextCursor"})
+public class CursorPageVO<T> extends RepresentationModel<CursorPageVO<T>> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+
+    public CursorPageVO() {}
+
+    public CursorPageVO(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.api.data.vo.v1;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.data.domain.Page;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+// Representação "sem hipermídia" de uma página: VOs planos + metadados, sem _links
+@JsonPropertyOrder({"content", "page"})
+public class LeanPageVO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private PageMetadata page;
+
+    public LeanPageVO() {}
+
+    public LeanPageVO(List<T> content, PageMetadata page) {
+        this.content = content;
+        this.page = page;
+    }
+
+    public static <E, T> LeanPageVO<T> of(Page<E> page, Function<E, T> mapper) {
+        return new LeanPageVO<>(
+                page.getContent().stream().map(mapper).toList(),
+                new PageMetadata(page.getSize(), page.getTotalElements(), page.getTotalPages(), page.getNumber()));
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public PageMetadata getPage() {
+        return page;
+    }
+
+    public void setPage(PageMetadata page) {
+        this.page = page;
+    }
+
+    @JsonPropertyOrder({"size", "totalElements", "totalPages", "number"})
+    public static class PageMetadata implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long size;
+        private long totalElements;
+        private long totalPages;
+        private long number;
+
+        public PageMetadata() {}
+
+        public PageMetadata(long size, long totalElements, long totalPages, long number) {
+            this.size = size;
+            this.totalElements = totalElements;
+            this.totalPages = totalPages;
+            this.number = number;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        public void setTotalElements(long totalElements) {
+            this.totalElements = totalElements;
+        }
+
+        public long getTotalPages() {
+            return totalPages;
+        }
+
+        public void setTotalPages(long totalPages) {
+            this.totalPages = totalPages;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public void setNumber(long number) {
+            this.number = number;
+        }
+    }
+}
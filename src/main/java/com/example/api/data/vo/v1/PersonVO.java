@@ -1,6 +1,7 @@
 package com.example.api.data.vo.v1;
 
 import com.example.api.model.Person;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.github.dozermapper.core.Mapping;
@@ -11,7 +12,7 @@ import java.io.Serializable;
 import java.util.Objects;
 
 @JsonPropertyOrder({"id", "firstName", "lastName", "address", "gender", "enabled"})
-public class PersonVO extends RepresentationModel<PersonVO> implements Serializable {
+public class PersonVO extends RepresentationModel<PersonVO> implements Serializable, VersionedVO {
 
     private static final long serialVersionUID = 1L;
 
@@ -24,6 +25,10 @@ public class PersonVO extends RepresentationModel<PersonVO> implements Serializa
     private String gender;
     private Boolean enabled;
 
+    // Não serializada: exposta apenas como ETag
+    @JsonIgnore
+    private Long version;
+
     public PersonVO() {}
 
     public Long getKey() {
@@ -74,6 +79,14 @@ public class PersonVO extends RepresentationModel<PersonVO> implements Serializa
         this.enabled = enabled;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
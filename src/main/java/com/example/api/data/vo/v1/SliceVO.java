@@ -0,0 +1,60 @@
+package com.example.api.data.vo.v1;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Página sem total (sem COUNT): apenas o conteúdo e se existe uma próxima página
+@JsonPropertyOrder({"content", "number", "size", "hasNext"})
+public class SliceVO<T> extends RepresentationModel<SliceVO<T>> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean hasNext;
+
+    public SliceVO() {}
+
+    public SliceVO(List<T> content, int number, int size, boolean hasNext) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public void setNumber(int number) {
+        this.number = number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
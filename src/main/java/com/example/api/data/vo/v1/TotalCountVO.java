@@ -0,0 +1,35 @@
+package com.example.api.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.Date;
+
+public class TotalCountVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+    private Date countedAt;
+
+    public TotalCountVO() {}
+
+    public TotalCountVO(long count, Date countedAt) {
+        this.count = count;
+        this.countedAt = countedAt;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Date getCountedAt() {
+        return countedAt;
+    }
+
+    public void setCountedAt(Date countedAt) {
+        this.countedAt = countedAt;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.api.data.vo.v1;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.io.Serializable;
 
 public class UploadFileResponseVO implements Serializable {
@@ -9,6 +11,11 @@ public class UploadFileResponseVO implements Serializable {
     private String fileDownloadUri;
     private String fileType;
     private long size;
+    private String checksum;
+
+    // Preenchido só quando a gravação deste arquivo falhou em um upload múltiplo
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
 
     public UploadFileResponseVO() {
     }
@@ -20,6 +27,11 @@ public class UploadFileResponseVO implements Serializable {
         this.size = size;
     }
 
+    public UploadFileResponseVO(String fileName, String fileDownloadUri, String fileType, long size, String checksum) {
+        this(fileName, fileDownloadUri, fileType, size);
+        this.checksum = checksum;
+    }
+
     public long getSize() {
         return size;
     }
@@ -51,4 +63,21 @@ public class UploadFileResponseVO implements Serializable {
     public void setFileName(String fileName) {
         this.fileName = fileName;
     }
+
+    // SHA-256 (hex) do conteúdo gravado
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
 }
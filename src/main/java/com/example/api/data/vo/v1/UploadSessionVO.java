@@ -0,0 +1,69 @@
+package com.example.api.data.vo.v1;
+
+import java.io.Serializable;
+
+// Estado de um upload retomável: offset é quantos bytes o servidor já tem
+public class UploadSessionVO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String fileName;
+    private String fileType;
+    private long length;
+    private long offset;
+
+    public UploadSessionVO() {
+    }
+
+    public UploadSessionVO(String id, String fileName, String fileType, long length, long offset) {
+        this.id = id;
+        this.fileName = fileName;
+        this.fileType = fileType;
+        this.length = length;
+        this.offset = offset;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public void setFileType(String fileType) {
+        this.fileType = fileType;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public boolean isComplete() {
+        return offset == length;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.api.data.vo.v1;
+
+// VOs com versão otimista: base para os ETags das respostas
+public interface VersionedVO {
+
+    Long getKey();
+
+    Long getVersion();
+}
@@ -0,0 +1,18 @@
+package com.example.api.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException() {
+        super("The resource was modified by another request, fetch it again and retry!");
+    }
+
+    public PreconditionFailedException(String ex) {
+        super(ex);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.api.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    // Segundos sugeridos ao cliente no cabeçalho Retry-After
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(long retryAfterSeconds) {
+        super("The server is busy, please retry later!");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.api.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UploadConflictException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public UploadConflictException(String ex) {
+        super(ex);
+    }
+}
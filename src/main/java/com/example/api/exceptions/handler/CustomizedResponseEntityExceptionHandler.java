@@ -1,10 +1,21 @@
 package com.example.api.exceptions.handler;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.example.api.exceptions.ExceptionResponse;
+import com.example.api.exceptions.FileTooLargeException;
+import com.example.api.exceptions.InvalidCursorException;
 import com.example.api.exceptions.InvalidJwtAuthenticationException;
+import com.example.api.exceptions.InvalidUploadException;
+import com.example.api.exceptions.MyFileNotFoundException;
+import com.example.api.exceptions.PreconditionFailedException;
 import com.example.api.exceptions.RequiredObjectIsNullException;
 import com.example.api.exceptions.ResourceNotFoundException;
+import com.example.api.exceptions.ServiceOverloadedException;
+import com.example.api.exceptions.UnsupportedExportFormatException;
+import com.example.api.exceptions.UploadConflictException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,7 +41,7 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
         return new ResponseEntity<>(exceptionResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    @ExceptionHandler(ResourceNotFoundException.class)
+    @ExceptionHandler({ResourceNotFoundException.class, MyFileNotFoundException.class})
     public final ResponseEntity<ExceptionResponse> handleNotFoundExceptions(
             Exception ex, WebRequest request) {
 
@@ -42,7 +53,8 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler(RequiredObjectIsNullException.class)
+    @ExceptionHandler({RequiredObjectIsNullException.class, InvalidCursorException.class,
+            UnsupportedExportFormatException.class, InvalidUploadException.class})
     public final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(
             Exception ex, WebRequest request) {
 
@@ -54,7 +66,57 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
         return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler(InvalidJwtAuthenticationException.class)
+    @ExceptionHandler({PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class})
+    public final ResponseEntity<ExceptionResponse> handlePreconditionFailedExceptions(
+            Exception ex, WebRequest request) {
+
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(UploadConflictException.class)
+    public final ResponseEntity<ExceptionResponse> handleConflictExceptions(
+            Exception ex, WebRequest request) {
+
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(FileTooLargeException.class)
+    public final ResponseEntity<ExceptionResponse> handlePayloadTooLargeExceptions(
+            Exception ex, WebRequest request) {
+
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public final ResponseEntity<ExceptionResponse> handleServiceOverloadedExceptions(
+            ServiceOverloadedException ex, WebRequest request) {
+
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(exceptionResponse);
+    }
+
+    @ExceptionHandler({InvalidJwtAuthenticationException.class, JWTVerificationException.class})
     public final ResponseEntity<ExceptionResponse> handleInvalidJwtAuthenticationExceptions(
             Exception ex, WebRequest request) {
 
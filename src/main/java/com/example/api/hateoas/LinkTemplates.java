@@ -0,0 +1,61 @@
+package com.example.api.hateoas;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+// Gera os links HATEOAS de um controller a partir de templates, sem criar um proxy
+// linkTo(methodOn(...)) para cada item. A base (scheme/host/contexto + mapeamento do controller)
+// é resolvida uma vez por página e cada item só preenche o id.
+// Os templates espelham os mapeamentos "/{id}", "?page&size&direction", "/slice" e "/cursor" dos controllers.
+public class LinkTemplates {
+
+    private static final Map<Class<?>, LinkTemplates> templates = new ConcurrentHashMap<>();
+
+    private final Class<?> controller;
+
+    private LinkTemplates(Class<?> controller) {
+        this.controller = controller;
+    }
+
+    public static LinkTemplates of(Class<?> controller) {
+        return templates.computeIfAbsent(controller, LinkTemplates::new);
+    }
+
+    // Resolve a base do controller para a requisição atual (ex.: http://localhost/api/people/v1)
+    public String baseUri() {
+        return linkTo(controller).toUri().toString();
+    }
+
+    public Link selfLink(Object id) {
+        return selfLink(baseUri(), id);
+    }
+
+    public Link selfLink(String baseUri, Object id) {
+        return Link.of(baseUri + "/" + id, IanaLinkRelations.SELF);
+    }
+
+    public Link pageLink(int page, int size, String direction) {
+        return pageLink(baseUri(), page, size, direction);
+    }
+
+    public Link pageLink(String baseUri, int page, int size, String direction) {
+        return Link.of(baseUri + "?page=" + page + "&size=" + size + "&direction=" + direction,
+                IanaLinkRelations.SELF);
+    }
+
+    public Link sliceLink(String baseUri, String path, int page, int size, String direction, LinkRelation rel) {
+        return Link.of(baseUri + path + "?page=" + page + "&size=" + size + "&direction=" + direction, rel);
+    }
+
+    public Link cursorLink(String baseUri, String cursor, int size, String direction, LinkRelation rel) {
+        var href = baseUri + "/cursor?size=" + size + "&direction=" + direction;
+        if (cursor != null) href += "&cursor=" + cursor;
+        return Link.of(href, rel);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.api.mapper;
+
+import com.example.api.data.vo.v1.BookVO;
+import com.example.api.model.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+// Mapeamento Book <-> BookVO gerado em tempo de compilação (sem reflexão)
+@Mapper
+public interface BookVOMapper {
+
+    BookVOMapper INSTANCE = Mappers.getMapper(BookVOMapper.class);
+
+    @Mapping(target = "key", source = "id")
+    BookVO convertEntityToVo(Book book);
+
+    @Mapping(target = "id", source = "key")
+    Book convertVoToEntity(BookVO book);
+}
@@ -0,0 +1,20 @@
+package com.example.api.mapper;
+
+import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.model.Person;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+// Mapeamento Person <-> PersonVO gerado em tempo de compilação (sem reflexão)
+@Mapper
+public interface PersonVOMapper {
+
+    PersonVOMapper INSTANCE = Mappers.getMapper(PersonVOMapper.class);
+
+    @Mapping(target = "key", source = "id")
+    PersonVO convertEntityToVo(Person person);
+
+    @Mapping(target = "id", source = "key")
+    Person convertVoToEntity(PersonVO person);
+}
@@ -1,10 +1,19 @@
 package com.example.api.mapper.custom;
 
+import com.example.api.data.vo.v1.BookVO;
+import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.mapper.BookVOMapper;
+import com.example.api.mapper.PersonVOMapper;
+import com.example.api.model.Book;
+import com.example.api.model.Person;
 import com.github.dozermapper.core.DozerBeanMapperBuilder;
 import com.github.dozermapper.core.Mapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class DozerMapper {
 
@@ -12,14 +21,39 @@ public class DozerMapper {
 
     // private static ModelMapper mapper = new ModelMapper();
 
+    // Mapeamentos gerados em tempo de compilação (MapStruct), indexados por origem -> destino.
+    // Pares não registrados continuam passando pelo Dozer.
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> generated = new HashMap<>();
+
+    static {
+        register(Person.class, PersonVO.class, PersonVOMapper.INSTANCE::convertEntityToVo);
+        register(PersonVO.class, Person.class, PersonVOMapper.INSTANCE::convertVoToEntity);
+        register(Book.class, BookVO.class, BookVOMapper.INSTANCE::convertEntityToVo);
+        register(BookVO.class, Book.class, BookVOMapper.INSTANCE::convertVoToEntity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <O, D> void register(Class<O> origin, Class<D> destination, Function<O, D> function) {
+        generated.computeIfAbsent(origin, k -> new HashMap<>())
+                .put(destination, (Function<Object, Object>) function);
+    }
+
+    @SuppressWarnings("unchecked")
     public static <O, D> D parseObject(O origin, Class<D> destination) {
+        if (origin != null) {
+            var byDestination = generated.get(origin.getClass());
+            if (byDestination != null) {
+                var function = byDestination.get(destination);
+                if (function != null) return (D) function.apply(origin);
+            }
+        }
         return mapper.map(origin, destination);
     }
 
     public static <O, D> List<D> parseListObjects(List<O> origin, Class<D> destination) {
-        List<D> destinationObjects = new ArrayList<D>();
+        List<D> destinationObjects = new ArrayList<D>(origin.size());
         for (O o : origin) {
-            destinationObjects.add(mapper.map(o, destination));
+            destinationObjects.add(parseObject(o, destination));
         }
         return destinationObjects;
     }
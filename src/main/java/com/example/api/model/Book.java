@@ -29,6 +29,10 @@ public class Book implements Serializable {
     @Column(nullable = false, length = 250)
     private String title;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Book() {}
 
     public Long getId() {
@@ -71,6 +75,14 @@ public class Book implements Serializable {
         this.title = title;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -26,6 +26,10 @@ public class Person implements Serializable{
     @Column(nullable = false)
     private Boolean enabled;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Person() {
     }
 
@@ -77,6 +81,14 @@ public class Person implements Serializable{
         this.enabled = enabled;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
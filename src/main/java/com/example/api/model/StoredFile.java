@@ -0,0 +1,97 @@
+package com.example.api.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+// Metadados de cada arquivo armazenado; no modo endereçado por conteúdo o SHA-256 também localiza o blob
+@Entity
+@Table(name = "stored_files")
+public class StoredFile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "uploaded_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date uploadedAt;
+
+    public StoredFile() {}
+
+    public StoredFile(String fileName, String sha256, Long size, String contentType, Date uploadedAt) {
+        this.fileName = fileName;
+        this.sha256 = sha256;
+        this.size = size;
+        this.contentType = contentType;
+        this.uploadedAt = uploadedAt;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Date getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public void setUploadedAt(Date uploadedAt) {
+        this.uploadedAt = uploadedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        StoredFile that = (StoredFile) o;
+        return Objects.equals(fileName, that.fileName) && Objects.equals(sha256, that.sha256) && Objects.equals(size, that.size) && Objects.equals(contentType, that.contentType) && Objects.equals(uploadedAt, that.uploadedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, sha256, size, contentType, uploadedAt);
+    }
+}
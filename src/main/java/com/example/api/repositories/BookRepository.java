@@ -1,7 +1,46 @@
 package com.example.api.repositories;
 
 import com.example.api.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    // Variante Slice: busca size + 1 registros e não executa o COUNT(*)
+    @Query("SELECT b FROM Book b")
+    Slice<Book> findSliceBy(Pageable pageable);
+
+    // Paginação por keyset sobre o índice (title, id)
+    @Query("SELECT b FROM Book b ORDER BY b.title ASC, b.id ASC")
+    List<Book> findFirstOrderByTitleAsc(Limit limit);
+
+    @Query("SELECT b FROM Book b WHERE b.title > :title OR (b.title = :title AND b.id > :id) " +
+            "ORDER BY b.title ASC, b.id ASC")
+    List<Book> findAfterOrderByTitleAsc(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT b FROM Book b ORDER BY b.title DESC, b.id DESC")
+    List<Book> findFirstOrderByTitleDesc(Limit limit);
+
+    @Query("SELECT b FROM Book b WHERE b.title < :title OR (b.title = :title AND b.id < :id) " +
+            "ORDER BY b.title DESC, b.id DESC")
+    List<Book> findAfterOrderByTitleDesc(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    // Leitura em streaming para exportação: o driver MySQL só faz streaming linha a linha
+    // com fetch size Integer.MIN_VALUE; precisa de uma transação aberta enquanto o Stream é consumido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAllBy();
 }
@@ -1,18 +1,68 @@
 package com.example.api.repositories;
 
 import com.example.api.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface PersonRepository extends JpaRepository<Person, Long> {
     @Modifying
-    @Query("UPDATE Person p SET p.enabled = false WHERE p.id =:id")
+    @Query("UPDATE Person p SET p.enabled = false, p.version = p.version + 1 WHERE p.id =:id")
     void disablePerson(@Param("id") Long id);
 
     @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))")
     Page<Person> findPersonsByName(@Param("firstName") String firstName, Pageable pageable);
-}
\ No newline at end of file
+
+    // Busca por substring usando o índice FULLTEXT ngram (V14); o termo deve vir como frase "..."
+    // e ter pelo menos ngram_token_size (2) caracteres
+    @Query(value = "SELECT * FROM person WHERE MATCH (first_name) AGAINST (:term IN BOOLEAN MODE)",
+            countQuery = "SELECT COUNT(*) FROM person WHERE MATCH (first_name) AGAINST (:term IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<Person> searchPersonsByName(@Param("term") String term, Pageable pageable);
+
+    @Query(value = "SELECT * FROM person WHERE MATCH (first_name) AGAINST (:term IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Slice<Person> searchSliceOfPersonsByName(@Param("term") String term, Pageable pageable);
+
+    // Variantes Slice: buscam size + 1 registros e não executam o COUNT(*)
+    @Query("SELECT p FROM Person p")
+    Slice<Person> findSliceBy(Pageable pageable);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))")
+    Slice<Person> findSliceOfPersonsByName(@Param("firstName") String firstName, Pageable pageable);
+
+    // Paginação por keyset sobre o índice (first_name, id)
+    @Query("SELECT p FROM Person p ORDER BY p.firstName ASC, p.id ASC")
+    List<Person> findFirstOrderByFirstNameAsc(Limit limit);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName > :firstName OR (p.firstName = :firstName AND p.id > :id) " +
+            "ORDER BY p.firstName ASC, p.id ASC")
+    List<Person> findAfterOrderByFirstNameAsc(@Param("firstName") String firstName, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT p FROM Person p ORDER BY p.firstName DESC, p.id DESC")
+    List<Person> findFirstOrderByFirstNameDesc(Limit limit);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName < :firstName OR (p.firstName = :firstName AND p.id < :id) " +
+            "ORDER BY p.firstName DESC, p.id DESC")
+    List<Person> findAfterOrderByFirstNameDesc(@Param("firstName") String firstName, @Param("id") Long id, Limit limit);
+
+    // Leitura em streaming para exportação: o driver MySQL só faz streaming linha a linha
+    // com fetch size Integer.MIN_VALUE; precisa de uma transação aberta enquanto o Stream é consumido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Person p ORDER BY p.id")
+    Stream<Person> streamAllBy();
+}
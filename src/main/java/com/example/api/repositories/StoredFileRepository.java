@@ -0,0 +1,15 @@
+package com.example.api.repositories;
+
+import com.example.api.model.StoredFile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    // Quantos nomes ainda apontam para o blob; zero permite apagá-lo
+    long countBySha256(String sha256);
+
+    // Aquecimento do índice em memória, dos uploads mais recentes para os mais antigos
+    Slice<StoredFile> findAllByOrderByUploadedAtDesc(Pageable pageable);
+}
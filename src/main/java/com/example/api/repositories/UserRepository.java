@@ -8,4 +8,9 @@ import org.springframework.data.repository.query.Param;
 public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u from User u WHERE u.userName =:userName")
     User findByUsername(@Param("userName") String userName);
+
+    // Apenas as flags de status, sem carregar as permissões (ManyToMany EAGER)
+    @Query("SELECT CASE WHEN (u.enabled = true AND u.accountNonLocked = true AND u.accountNonExpired = true) " +
+            "THEN true ELSE false END FROM User u WHERE u.userName =:userName")
+    Boolean isActive(@Param("userName") String userName);
 }
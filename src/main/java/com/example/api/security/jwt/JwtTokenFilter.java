@@ -27,9 +27,9 @@ public class JwtTokenFilter extends GenericFilterBean {
             throws IOException, ServletException {
         // Resolve o token a partir do cabeçalho da requisição HTTP
         String token = tokenProvider.resolveToken((HttpServletRequest) request);
-        if (token != null && tokenProvider.validateToken(token)) {
-            // Autentica o token e insere no contexto de segurança
-            Authentication auth = tokenProvider.getAuthentication(token);
+        if (token != null) {
+            // Verifica o token em uma única passada e insere a autenticação no contexto de segurança
+            Authentication auth = tokenProvider.authenticate(token);
             if (auth != null) {
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
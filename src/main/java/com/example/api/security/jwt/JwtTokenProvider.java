@@ -6,20 +6,31 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.api.data.vo.v1.security.TokenVO;
 import com.example.api.exceptions.InvalidJwtAuthenticationException;
+import com.example.api.services.UserServices;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtTokenProvider {
@@ -32,16 +43,58 @@ public class JwtTokenProvider {
     @Value("${security.jwt.token.expire-length:3600000}")
     private long validityInMilliseconds = 3600000;
 
+    // true: monta a Authentication a partir das claims verificadas, sem consultar o usuário no banco
+    @Value("${security.jwt.claims-authentication:true}")
+    private boolean claimsAuthentication = true;
+
+    // No modo por claims, confere também se o usuário continua habilitado (cache com TTL curto)
+    @Value("${security.jwt.check-user-status:true}")
+    private boolean checkUserStatus = true;
+
+    @Autowired
+    private UserServices userServices;
+
     @Autowired
-    private UserDetailsService userDetailsService;
+    private TokenRevocationStore revocationStore;
+
+    // Limite de tokens decodificados mantidos em memória
+    @Value("${security.jwt.decoded-cache-size:10000}")
+    private long decodedCacheSize = 10000;
 
     Algorithm algorithm = null;
 
+    // Verificador é thread-safe: criado uma única vez e reaproveitado em todas as requisições
+    private JWTVerifier verifier = null;
+
+    // Cache digest(token) -> token já verificado; cada entrada expira junto com o próprio token
+    private Cache<String, DecodedJWT> decodedTokens = null;
+
     // Metodo de inicialização para codificar a chave secreta e configurar o algoritmo HMAC256
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
+        decodedTokens = Caffeine.newBuilder()
+                .maximumSize(decodedCacheSize)
+                .expireAfter(new Expiry<String, DecodedJWT>() {
+                    @Override
+                    public long expireAfterCreate(String key, DecodedJWT value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(
+                                Math.max(0, value.getExpiresAt().getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, DecodedJWT value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, DecodedJWT value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     // Cria o token de acesso para um usuário com suas respectivas roles
@@ -59,8 +112,9 @@ public class JwtTokenProvider {
         if (refreshToken.contains("Bearer "))
             refreshToken = refreshToken.substring("Bearer ".length());
 
-        JWTVerifier verifier = JWT.require(algorithm).build();
         DecodedJWT decodedJWT = verifier.verify(refreshToken); // Decodifica o refresh token
+        if (revocationStore.isRevoked(tokenId(decodedJWT)))
+            throw new InvalidJwtAuthenticationException("Revoked JWT token!");
         String username = decodedJWT.getSubject(); // Extrai o nome do usuário
         List<String> roles = decodedJWT.getClaim("roles").asList(String.class); // Extrai as roles do usuário
         return createAccessToken(username, roles); // Cria um novo access token
@@ -75,6 +129,7 @@ public class JwtTokenProvider {
                 .withIssuedAt(now)
                 .withExpiresAt(validity)
                 .withSubject(username)
+                .withJWTId(UUID.randomUUID().toString())
                 .withIssuer(issuerUrl)
                 .sign(algorithm)
                 .strip(); // Retorna o token sem espaços em branco
@@ -88,23 +143,81 @@ public class JwtTokenProvider {
                 .withIssuedAt(now)
                 .withExpiresAt(validityRefreshToken)
                 .withSubject(username)
+                .withJWTId(UUID.randomUUID().toString())
                 .sign(algorithm)
                 .strip();
     }
 
+    // Verifica o token uma única vez e já monta a autenticação; null se expirado ou usuário inativo
+    public Authentication authenticate(String token) {
+        DecodedJWT decodedJWT = decodedToken(token);
+        if (isExpired(decodedJWT) || revocationStore.isRevoked(tokenId(decodedJWT))) return null;
+        return getAuthentication(decodedJWT);
+    }
+
+    // Revoga o token (access ou refresh) até a sua expiração natural
+    public void revoke(String token) {
+        if (token.contains("Bearer "))
+            token = token.substring("Bearer ".length());
+
+        DecodedJWT decodedJWT = decodedToken(token);
+        if (isExpired(decodedJWT)) return;
+        revocationStore.revoke(tokenId(decodedJWT), decodedJWT.getExpiresAt());
+    }
+
+    // Identificador usado na revogação: o jti ou, para tokens emitidos sem ele, o SHA-256 do token
+    private static String tokenId(DecodedJWT decodedJWT) {
+        return decodedJWT.getId() != null ? decodedJWT.getId() : digest(decodedJWT.getToken());
+    }
+
     // Retorna a autenticação com base no token JWT
     public Authentication getAuthentication(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
-        UserDetails userDetails = this.userDetailsService
+        return getAuthentication(decodedToken(token));
+    }
+
+    private Authentication getAuthentication(DecodedJWT decodedJWT) {
+        if (claimsAuthentication) return getClaimsAuthentication(decodedJWT);
+
+        UserDetails userDetails = this.userServices
                 .loadUserByUsername(decodedJWT.getSubject()); // Carrega os detalhes do usuário
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
-    // Decodifica o token JWT
+    // As roles já vêm assinadas no token; retorna null se o usuário foi desabilitado ou bloqueado
+    private Authentication getClaimsAuthentication(DecodedJWT decodedJWT) {
+        String username = decodedJWT.getSubject();
+        if (checkUserStatus && !userServices.isActive(username)) return null;
+
+        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of()
+                : roles.stream().map(SimpleGrantedAuthority::new).toList();
+        UserDetails userDetails = new User(username, "", authorities);
+        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+    }
+
+    // Decodifica o token JWT; tokens repetidos saem do cache sem refazer o HMAC nem o parse do JSON
     private DecodedJWT decodedToken(String token) {
-        Algorithm alg = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier verifier = JWT.require(alg).build();
-        return verifier.verify(token);
+        String key = digest(token);
+        DecodedJWT decodedJWT = decodedTokens.getIfPresent(key);
+        if (decodedJWT == null) {
+            decodedJWT = verifier.verify(token);
+            if (decodedJWT.getExpiresAt() != null) decodedTokens.put(key, decodedJWT);
+        }
+        return decodedJWT;
+    }
+
+    // A chave do cache é o SHA-256 do token, para não manter o bearer em claro como chave
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isExpired(DecodedJWT decodedJWT) {
+        return decodedJWT.getExpiresAt() == null || decodedJWT.getExpiresAt().before(new Date());
     }
 
     // Extrai o token do cabeçalho da requisição HTTP
@@ -120,10 +233,7 @@ public class JwtTokenProvider {
     public boolean validateToken(String token) {
         DecodedJWT decodedJWT = decodedToken(token);
         try {
-            if (decodedJWT.getExpiresAt().before(new Date())) {
-                return false;
-            }
-            return true;
+            return !isExpired(decodedJWT);
         } catch (Exception e) {
             throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
         }
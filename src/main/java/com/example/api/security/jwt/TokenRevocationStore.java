@@ -0,0 +1,67 @@
+package com.example.api.security.jwt;
+
+import com.example.api.model.RevokedToken;
+import com.example.api.repositories.RevokedTokenRepository;
+import com.example.api.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.logging.Logger;
+
+// Lista de tokens revogados: o filtro de Bloom em memória responde "certamente não revogado" sem acessar o banco;
+// só os positivos (revogados ou falsos positivos) consultam a tabela revoked_tokens,
+// que mantém as revogações entre reinícios e é ordenada pela expiração (idx_revoked_tokens_expires_at).
+@Component
+public class TokenRevocationStore {
+
+    private Logger logger = Logger.getLogger(TokenRevocationStore.class.getName());
+
+    @Value("${security.jwt.revocation.expected-insertions:100000}")
+    private long expectedInsertions = 100000;
+
+    @Value("${security.jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate = 0.001;
+
+    @Autowired
+    private RevokedTokenRepository repository;
+
+    private volatile BloomFilter filter;
+
+    @PostConstruct
+    protected void init() {
+        rebuild(new Date());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) return false;
+        return repository.existsById(tokenId);
+    }
+
+    public void revoke(String tokenId, Date expiresAt) {
+        // Grava antes de ligar os bits: quem vê o bit ligado sempre encontra a linha
+        repository.save(new RevokedToken(tokenId, expiresAt));
+        synchronized (this) {
+            filter.put(tokenId);
+        }
+    }
+
+    // Remove os tokens cuja expiração já passou e reconstrói o filtro só com os restantes
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.prune-interval:60000}")
+    public void prune() {
+        var now = new Date();
+        if (repository.deleteExpired(now) > 0) rebuild(now);
+    }
+
+    // Sincronizado com revoke: uma revogação gravada depois da leitura entra no filtro novo
+    private synchronized void rebuild(Date now) {
+        var rebuilt = new BloomFilter(expectedInsertions, falsePositiveRate);
+        var tokenIds = repository.findNotExpiredIds(now);
+        tokenIds.forEach(rebuilt::put);
+        filter = rebuilt;
+        logger.fine("Loaded " + tokenIds.size() + " revoked tokens!");
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.api.security.ratelimit;
+
+import com.example.api.exceptions.ExceptionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.GenericFilterBean;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Limita /auth/signin e /auth/refresh por IP e por usuário antes de chegar ao AuthServices (PBKDF2).
+// Pedidos acima do limite recebem 429 com Retry-After, sem consumir CPU de hash.
+// Por usuário há dois limites: um só pelo nome, mais folgado, que segura credential stuffing vindo de
+// muitos IPs; e um menor por IP + usuário, que esgota antes para quem ataca de um único endereço.
+public class AuthRateLimitFilter extends GenericFilterBean {
+
+    // Credenciais são pequenas; corpos maiores não são lidos nem repassados
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper xmlMapper = new XmlMapper();
+    private static final ObjectMapper yamlMapper = new YAMLMapper();
+
+    private static final MediaType APPLICATION_YML =
+            MediaType.parseMediaType(com.example.api.util.MediaType.APPLICATION_YML);
+
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter usernameLimiter;
+    private final TokenBucketLimiter ipUsernameLimiter;
+
+    public AuthRateLimitFilter(TokenBucketLimiter ipLimiter, TokenBucketLimiter usernameLimiter,
+                               TokenBucketLimiter ipUsernameLimiter) {
+        this.ipLimiter = ipLimiter;
+        this.usernameLimiter = usernameLimiter;
+        this.ipUsernameLimiter = ipUsernameLimiter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        var request = (HttpServletRequest) req;
+        var response = (HttpServletResponse) res;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        boolean signin = "POST".equals(request.getMethod()) && "/auth/signin".equals(path);
+        boolean refresh = "PUT".equals(request.getMethod()) && path.startsWith("/auth/refresh/");
+        if (!signin && !refresh) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            reject(request, response, wait);
+            return;
+        }
+
+        String username;
+        if (signin) {
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            request = new CachedBodyRequest(request, body);
+            username = usernameOf(request.getContentType(), body);
+        } else {
+            username = path.substring("/auth/refresh/".length());
+        }
+
+        if (username != null && !username.isBlank()) {
+            String key = username.strip().toLowerCase(Locale.ROOT);
+            // IP + usuário primeiro: um IP já barrado não gasta os tokens do usuário
+            wait = ipUsernameLimiter.tryAcquire(request.getRemoteAddr() + "|" + key);
+            if (wait == 0) wait = usernameLimiter.tryAcquire(key);
+            if (wait > 0) {
+                reject(request, response, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, res);
+    }
+
+    // Lê o usuário no mesmo formato que o controller vai desserializar (JSON, XML ou YAML)
+    private static String usernameOf(String contentType, byte[] body) {
+        try {
+            var node = mapperFor(contentType).readTree(body);
+            return node != null && node.hasNonNull("username") ? node.get("username").asText() : null;
+        } catch (IOException e) {
+            return null; // corpo inválido: o controller também rejeita; vale só o limite por IP
+        }
+    }
+
+    private static ObjectMapper mapperFor(String contentType) {
+        MediaType type;
+        try {
+            type = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_JSON;
+        } catch (InvalidMediaTypeException e) {
+            return objectMapper;
+        }
+        if (type.isCompatibleWith(MediaType.APPLICATION_XML) || type.isCompatibleWith(MediaType.TEXT_XML)
+                || "xml".equals(type.getSubtypeSuffix()))
+            return xmlMapper;
+        if (type.isCompatibleWith(APPLICATION_YML)) return yamlMapper;
+        return objectMapper;
+    }
+
+    private static void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ExceptionResponse(
+                new Date(), "Too many authentication attempts, retry later!", "uri=" + request.getRequestURI()));
+    }
+
+    // Permite que o controller leia de novo o corpo já consumido pelo filtro
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // O corpo já está todo em memória: está sempre pronto e termina na mesma chamada
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            var charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    Charset.forName(charset)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.api.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket por chave implementado como GCRA: cada chave guarda só o "theoretical arrival time" (TAT)
+// em um AtomicLong, atualizado por CAS, sem locks. capacity é o tamanho da rajada; refillPerMinute, a taxa.
+public class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(long capacity, long refillPerMinute, long maximumKeys) {
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, capacity) - 1);
+        // Um bucket parado por mais que o tempo de recarga completa volta cheio; pode ser descartado
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofNanos(emissionIntervalNanos + burstToleranceNanos))
+                .build();
+    }
+
+    // 0 se o pedido foi aceito; senão, nanossegundos até haver um token disponível
+    public long tryAcquire(String key) {
+        var tat = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long arrival = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long allowAt = arrival - burstToleranceNanos;
+            if (allowAt - now > 0) return allowAt - now;
+            if (tat.compareAndSet(current, arrival + emissionIntervalNanos)) return 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.api.serialization.converter;
+
+import com.example.api.data.vo.v1.LeanPageVO;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.lang.reflect.Type;
+
+// Serializa apenas as respostas "lean" (LeanPageVO), ignorando os links dos RepresentationModel
+public class LeanJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public LeanJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(
+                objectMapper.copy().addMixIn(RepresentationModel.class, NoLinksMixIn.class),
+                MediaType.parseMediaType(com.example.api.util.MediaType.APPLICATION_JSON_LEAN),
+                MediaType.APPLICATION_JSON
+        );
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return LeanPageVO.class.isAssignableFrom(clazz) && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return LeanPageVO.class.isAssignableFrom(clazz) && super.canWrite(type, clazz, mediaType);
+    }
+
+    @JsonIgnoreProperties({"links"})
+    public abstract static class NoLinksMixIn {
+    }
+}
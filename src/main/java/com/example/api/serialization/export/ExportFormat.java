@@ -0,0 +1,33 @@
+package com.example.api.serialization.export;
+
+import com.example.api.exceptions.UnsupportedExportFormatException;
+import com.example.api.util.MediaType;
+
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(MediaType.TEXT_CSV, "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat of(String format) {
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) return value;
+        }
+        throw new UnsupportedExportFormatException(format);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
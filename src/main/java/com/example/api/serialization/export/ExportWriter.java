@@ -0,0 +1,77 @@
+package com.example.api.serialization.export;
+
+import com.example.api.serialization.converter.LeanJackson2HttpMessageConverter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+// Escreve registros um a um (NDJSON ou CSV) direto no OutputStream, sem acumular em memória.
+// Não fecha o stream de saída; quem o abriu é responsável por isso.
+public class ExportWriter<T> {
+
+    private static final ObjectWriter jsonWriter = new ObjectMapper()
+            .addMixIn(RepresentationModel.class, LeanJackson2HttpMessageConverter.NoLinksMixIn.class)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET, JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+            .writer();
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final String[] columns;
+    private final Function<T, Object[]> row;
+    private boolean headerWritten;
+
+    public ExportWriter(ExportFormat format, OutputStream output, String[] columns, Function<T, Object[]> row) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        this.columns = columns;
+        this.row = row;
+    }
+
+    public void write(T record) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            jsonWriter.writeValue(writer, record);
+            writer.write('\n');
+            return;
+        }
+        if (!headerWritten) {
+            writeCsvLine(columns);
+            headerWritten = true;
+        }
+        writeCsvLine(row.apply(record));
+    }
+
+    public void flush() throws IOException {
+        if (format == ExportFormat.CSV && !headerWritten) {
+            writeCsvLine(columns);
+            headerWritten = true;
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0)
+            return text;
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -2,6 +2,7 @@ package com.example.api.services;
 
 import com.example.api.data.vo.v1.security.AccountCredentialsVO;
 import com.example.api.data.vo.v1.security.TokenVO;
+import com.example.api.exceptions.ServiceOverloadedException;
 import com.example.api.repositories.UserRepository;
 import com.example.api.security.jwt.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,6 +43,8 @@ public class AuthServices {
                 throw new UsernameNotFoundException("Username " + username + " not found!");
             }
             return ResponseEntity.ok(tokenResponse); // Retorna o token
+        } catch (ServiceOverloadedException e) {
+            throw e; // Pool de hash saturado: 503, não credenciais inválidas
         } catch (Exception e) {
             throw new BadCredentialsException("Invalid username/password supplied!");
         }
@@ -60,4 +63,9 @@ public class AuthServices {
         }
         return ResponseEntity.ok(tokenResponse);
     }
-}
\ No newline at end of file
+
+    // Revoga o token recebido (logout ou comprometimento)
+    public void revoke(String token) {
+        tokenProvider.revoke(token);
+    }
+}
@@ -1,36 +1,71 @@
 package com.example.api.services;
 
+import com.example.api.config.CacheConfig;
 import com.example.api.controllers.BookController;
-import com.example.api.controllers.PersonController;
 import com.example.api.data.vo.v1.BookVO;
-import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.data.vo.v1.SliceVO;
+import com.example.api.data.vo.v1.TotalCountVO;
+import com.example.api.data.vo.v1.CursorPageVO;
+import com.example.api.data.vo.v1.LeanPageVO;
+import com.example.api.exceptions.PreconditionFailedException;
 import com.example.api.exceptions.RequiredObjectIsNullException;
 import com.example.api.exceptions.ResourceNotFoundException;
+import com.example.api.hateoas.LinkTemplates;
 import com.example.api.mapper.custom.DozerMapper;
 import com.example.api.model.Book;
 import com.example.api.repositories.BookRepository;
+import com.example.api.serialization.export.ExportFormat;
+import com.example.api.serialization.export.ExportWriter;
+import com.example.api.util.CachedCount;
+import com.example.api.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Logger;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.stream.Stream;
 
 @Service
 public class BookServices {
 
     private Logger logger = Logger.getLogger(BookServices.class.getName());
 
+    private static final LinkTemplates links = LinkTemplates.of(BookController.class);
+
     @Autowired
     BookRepository repository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${api.count-cache-ttl:30000}")
+    private long countCacheTtl = 30000;
+
+    private final CachedCount totalCount = new CachedCount();
+
+    private static final String[] EXPORT_COLUMNS = {"id", "author", "launchDate", "price", "title"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<BookVO> assembler;
 
@@ -40,27 +75,136 @@ public class BookServices {
 
         var booksPage = repository.findAll(pageable);
 
-        var booksVOs = booksPage.map(p -> DozerMapper.parseObject(p, BookVO.class));
-        booksVOs.map(p -> p.add(linkTo(methodOn(BookController.class).findById(p.getKey())).withSelfRel()));
+        var baseUri = links.baseUri();
 
-        Link findAllLink = linkTo(
-                methodOn(BookController.class)
-                        .findAll(pageable.getPageNumber(),
-                                pageable.getPageSize(),
-                                "asc")).withSelfRel();
+        var booksVOs = booksPage.map(p -> {
+            var vo = DozerMapper.parseObject(p, BookVO.class);
+            vo.add(links.selfLink(baseUri, vo.getKey()));
+            return vo;
+        });
+
+        Link findAllLink = links.pageLink(baseUri, pageable.getPageNumber(), pageable.getPageSize(), "asc");
 
         return assembler.toModel(booksVOs, findAllLink);
     }
 
+    public LeanPageVO<BookVO> findAllLean(Pageable pageable) {
+
+        logger.info("Finding all books (lean)!");
+
+        var booksPage = repository.findAll(pageable);
+
+        return LeanPageVO.of(booksPage, p -> DozerMapper.parseObject(p, BookVO.class));
+    }
+
+    public SliceVO<BookVO> findAllSlice(Pageable pageable) {
+
+        logger.info("Finding all books (slice)!");
+
+        var slice = repository.findSliceBy(pageable);
+
+        return toSliceVO(slice, "/slice");
+    }
+
+    private SliceVO<BookVO> toSliceVO(Slice<Book> slice, String path) {
+        var baseUri = links.baseUri();
+
+        var content = slice.getContent().stream().map(e -> {
+            var vo = DozerMapper.parseObject(e, BookVO.class);
+            vo.add(links.selfLink(baseUri, vo.getKey()));
+            return vo;
+        }).toList();
+
+        var direction = slice.getSort().stream()
+                .findFirst()
+                .map(order -> order.getDirection().name().toLowerCase())
+                .orElse("asc");
+
+        var sliceVO = new SliceVO<>(content, slice.getNumber(), slice.getSize(), slice.hasNext());
+        sliceVO.add(links.sliceLink(baseUri, path, slice.getNumber(), slice.getSize(), direction, IanaLinkRelations.SELF));
+        if (slice.hasNext())
+            sliceVO.add(links.sliceLink(baseUri, path, slice.getNumber() + 1, slice.getSize(), direction, IanaLinkRelations.NEXT));
+        return sliceVO;
+    }
+
+    // Total aproximado: o COUNT(*) é reaproveitado por até countCacheTtl ms
+    public TotalCountVO count() {
+
+        logger.info("Counting all books!");
+
+        return totalCount.get(countCacheTtl, repository::count);
+    }
+
+    public CursorPageVO<BookVO> findAllByCursor(String cursor, Integer size, Sort.Direction direction) {
+
+        logger.info("Finding all books by cursor!");
+
+        var pageSize = Math.max(1, size);
+        var limit = Limit.of(pageSize + 1); // um registro extra indica se há próxima página
+
+        List<Book> entities;
+        if (cursor == null || cursor.isBlank()) {
+            entities = direction.isAscending()
+                    ? repository.findFirstOrderByTitleAsc(limit)
+                    : repository.findFirstOrderByTitleDesc(limit);
+        } else {
+            var position = KeysetCursor.decode(cursor);
+            direction = position.getDirection();
+            entities = direction.isAscending()
+                    ? repository.findAfterOrderByTitleAsc(position.getSortKey(), position.getId(), limit)
+                    : repository.findAfterOrderByTitleDesc(position.getSortKey(), position.getId(), limit);
+        }
+
+        var hasNext = entities.size() > pageSize;
+        if (hasNext) entities = entities.subList(0, pageSize);
+
+        var baseUri = links.baseUri();
+        var content = entities.stream().map(e -> {
+            var vo = DozerMapper.parseObject(e, BookVO.class);
+            vo.add(links.selfLink(baseUri, vo.getKey()));
+            return vo;
+        }).toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            var last = entities.get(entities.size() - 1);
+            nextCursor = KeysetCursor.encode(direction, last.getId(), last.getTitle());
+        }
+
+        var directionParam = direction.name().toLowerCase();
+        var page = new CursorPageVO<>(content, pageSize, nextCursor);
+        page.add(links.cursorLink(baseUri, cursor, pageSize, directionParam, IanaLinkRelations.SELF));
+        if (nextCursor != null)
+            page.add(links.cursorLink(baseUri, nextCursor, pageSize, directionParam, IanaLinkRelations.NEXT));
+        return page;
+    }
+
+    // Exporta todos os registros em streaming: cada entidade é mapeada, escrita e desanexada
+    // do contexto de persistência, mantendo o uso de heap constante
+    @Transactional
+    public void export(ExportFormat format, OutputStream output) throws IOException {
+
+        logger.info("Exporting all books!");
+
+        var writer = new ExportWriter<BookVO>(format, output, EXPORT_COLUMNS, vo -> new Object[]{
+                vo.getKey(), vo.getAuthor(), vo.getLaunchDate() == null ? null : vo.getLaunchDate().toInstant(), vo.getPrice(), vo.getTitle()});
+
+        try (Stream<Book> entities = repository.streamAllBy()) {
+            Iterator<Book> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                var entity = iterator.next();
+                writer.write(DozerMapper.parseObject(entity, BookVO.class));
+                entityManager.detach(entity);
+            }
+        }
+        writer.flush();
+    }
+
     public BookVO findById(Long id) {
 
         logger.info("Finding one book!");
 
-        var entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-        var vo = DozerMapper.parseObject(entity, BookVO.class);
-        vo.add(linkTo(methodOn(BookController.class).findById(id)).withSelfRel());
-        return vo;
+        return toVO(cachedEntity(id));
     }
 
     public BookVO create(BookVO book) {
@@ -69,9 +213,13 @@ public class BookServices {
 
         logger.info("Creating one book!");
         var entity = DozerMapper.parseObject(book, Book.class);
-        var vo =  DozerMapper.parseObject(repository.save(entity), BookVO.class);
-        vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
-        return vo;
+        // Sempre um registro novo: com id (ou version) vindo do cliente o save faria merge e falharia no lock otimista
+        entity.setId(null);
+        entity.setVersion(null);
+        var saved = repository.save(entity);
+        totalCount.invalidate();
+        cache(saved);
+        return toVO(saved);
     }
 
     public BookVO update(BookVO book) {
@@ -83,14 +231,19 @@ public class BookServices {
         var entity = repository.findById(book.getKey())
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 
+        // If-Match: a versão enviada pelo cliente precisa ser a atual; a coluna @Version
+        // ainda protege a janela entre esta leitura e o save
+        if (book.getVersion() != null && !book.getVersion().equals(entity.getVersion()))
+            throw new PreconditionFailedException();
+
         entity.setAuthor(book.getAuthor());
         entity.setLaunchDate(book.getLaunchDate());
         entity.setPrice(book.getPrice());
         entity.setTitle(book.getTitle());
 
-        var vo =  DozerMapper.parseObject(repository.save(entity), BookVO.class);
-        vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
-        return vo;
+        var saved = repository.save(entity);
+        cache(saved);
+        return toVO(saved);
     }
 
     public void delete(Long id) {
@@ -100,5 +253,34 @@ public class BookServices {
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
         repository.delete(entity);
+        totalCount.invalidate();
+        byIdCache().evict(id);
+    }
+
+    // O cache guarda uma cópia destacada da entidade, sem links e nunca entregue a quem chama:
+    // cada requisição monta o próprio VO, com o self link do host, esquema e prefixo dela.
+    // Chamadas concorrentes para o mesmo id aguardam uma única leitura no banco.
+    private Book cachedEntity(Long id) {
+        try {
+            return byIdCache().get(id, () -> DozerMapper.parseObject(repository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!")), Book.class));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void cache(Book entity) {
+        byIdCache().put(entity.getId(), DozerMapper.parseObject(entity, Book.class));
+    }
+
+    private Cache byIdCache() {
+        return cacheManager.getCache(CacheConfig.BOOK_BY_ID);
+    }
+
+    private BookVO toVO(Book entity) {
+        var vo = DozerMapper.parseObject(entity, BookVO.class);
+        vo.add(links.selfLink(vo.getKey()));
+        return vo;
     }
 }
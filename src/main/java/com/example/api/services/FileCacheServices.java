@@ -0,0 +1,96 @@
+package com.example.api.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Conteúdo de arquivos pequenos e muito baixados em buffers diretos (fora do heap), para o download
+// não reabrir o arquivo a cada requisição. Limitado pelo total de bytes; a admissão W-TinyLFU do
+// Caffeine mantém os mais acessados. Um buffer direto só é alocado depois de o arquivo ser baixado
+// hotCacheAdmissionHits vezes: antes disso só um contador por caminho, e o download segue pelo disco.
+// A chave é o caminho: quem substitui um arquivo chama invalidate logo após o rename
+// (o invalidate espera uma carga em andamento, então não sobra conteúdo antigo).
+@Service
+public class FileCacheServices {
+
+    private final Cache<Path, ByteBuffer> cache;
+    private final long maxFileSize;
+
+    // Downloads recentes de arquivos ainda fora do cache
+    private final Cache<Path, AtomicInteger> seen;
+    private final int admissionHits;
+
+    @Autowired
+    public FileCacheServices(FileStorageConfig fileStorageConfig, MeterRegistry registry) {
+        this.maxFileSize = fileStorageConfig.getHotCacheMaxFileSize();
+        this.admissionHits = Math.max(1, fileStorageConfig.getHotCacheAdmissionHits());
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(fileStorageConfig.getHotCacheMaxBytes())
+                .weigher((Path path, ByteBuffer buffer) -> buffer.capacity())
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions etc. com cache=hotFiles, mais a taxa de acerto pronta
+        CaffeineCacheMetrics.monitor(registry, cache, "hotFiles");
+        Gauge.builder("files.hot.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fraction of downloads served from the in-memory hot file cache")
+                .register(registry);
+    }
+
+    // Conteúdo do arquivo (somente leitura, posição 0) ou null se ele não cabe ou ainda não entrou no cache
+    public ByteBuffer get(Path file, long size) {
+        if (size <= 0 || size > maxFileSize) return null;
+        // Cada download registra exatamente um acerto ou uma falta nas estatísticas
+        if (cache.policy().getIfPresentQuietly(file) == null
+                && seen.get(file, path -> new AtomicInteger()).incrementAndGet() < admissionHits) {
+            var cached = cache.getIfPresent(file);
+            return cached != null ? cached.asReadOnlyBuffer() : null;
+        }
+        try {
+            var buffer = cache.get(file, FileCacheServices::read).asReadOnlyBuffer();
+            seen.invalidate(file);
+            return buffer;
+        } catch (UncheckedIOException e) {
+            // removido entre o loadFile e a leitura: segue pelo caminho normal, que reporta o erro
+            return null;
+        }
+    }
+
+    public void invalidate(Path file) {
+        cache.invalidate(file);
+    }
+
+    public double hitRatio() {
+        return cache.stats().hitRate();
+    }
+
+    private static ByteBuffer read(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocateDirect(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // lê até encher
+            }
+            return buffer.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.api.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.model.StoredFile;
+import com.example.api.util.ByteRange;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Envia arquivos com suporte a Range/If-Range (206). Cópia zero só com o sendfile do Tomcat; sem ele
+// (ex.: TLS) a API de servlet só aceita byte[], então o arquivo passa uma vez por um buffer do heap
+@Service
+public class FileDownloadServices {
+
+    private Logger logger = Logger.getLogger(FileDownloadServices.class.getName());
+
+    // Atributos de request do Tomcat para sendfile (org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Formatos que já chegam comprimidos: DEFLATE só gastaria CPU, vão como STORED no ZIP
+    private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "gif", "webp", "avif", "heic",
+            "mp3", "m4a", "aac", "ogg", "opus", "mp4", "m4v", "mov", "mkv", "webm",
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst", "br", "jar",
+            "docx", "xlsx", "pptx", "odt", "ods", "odp", "epub", "pdf");
+
+    // Bloco de leitura quando não há sendfile (escrita síncrona e WriteListener)
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileCacheServices hotFiles;
+    private final long asyncThreshold;
+    private final long asyncTimeoutMillis;
+
+    @Autowired
+    public FileDownloadServices(FileStorageConfig fileStorageConfig, FileCacheServices hotFiles) {
+        this.hotFiles = hotFiles;
+        this.asyncThreshold = fileStorageConfig.getAsyncDownloadThreshold();
+        this.asyncTimeoutMillis = fileStorageConfig.getAsyncDownloadTimeout().toMillis();
+    }
+
+    public void send(Path file, String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        send(file, null, filename, request, response);
+    }
+
+    // gzip: variante pré-comprimida do arquivo (ou null), enviada com Content-Encoding quando o cliente aceita
+    public void send(Path file, Path gzip, String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        send(file, gzip, filename, null, request, response);
+    }
+
+    // metadata: entrada do índice (ou null); com ela tamanho, ETag (SHA-256) e data saem do índice e o
+    // arquivo só é acessado para enviar o corpo, então um HEAD pode passar file = null
+    public void send(Path file, Path gzip, String filename, StoredFile metadata,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        long size;
+        long lastModified;
+        String eTag;
+        if (metadata != null) {
+            size = metadata.getSize();
+            lastModified = metadata.getUploadedAt().getTime();
+            eTag = "\"" + metadata.getSha256() + "\"";
+        } else {
+            var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            size = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+            eTag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        }
+
+        // Tipo a partir da extensão (tabela estática do Spring), sem consultar o sistema de arquivos
+        var contentType = MediaTypeFactory.getMediaType(filename)
+                .or(() -> indexedType(metadata))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        if (gzip != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            // Range e If-Range valem sobre a representação original: a variante só atende a resposta completa
+            if (request.getHeader(HttpHeaders.RANGE) == null
+                    && FileVariantServices.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                long gzipSize = Files.size(gzip);
+                response.setHeader(HttpHeaders.ETAG, eTag.substring(0, eTag.length() - 1) + "-gz\"");
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                response.setContentType(contentType.toString());
+                response.setContentLengthLong(gzipSize);
+                write(gzip, gzipSize, 0, gzipSize, request, response);
+                return;
+            }
+        }
+
+        ByteRange range = rangeIfStillValid(request, size, eTag, lastModified);
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+
+        long start = range == null ? 0 : range.getStart();
+        long length = range == null ? size : range.getLength();
+        if (range != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.toContentRange(size));
+        }
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(length);
+        write(file, size, start, length, request, response);
+    }
+
+    private void write(Path file, long size, long start, long length,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if ("HEAD".equals(request.getMethod()) || length == 0) return;
+
+        var cached = hotFiles.get(file, size);
+        if (cached != null && start + length <= cached.limit()) {
+            var target = Channels.newChannel(response.getOutputStream());
+            var slice = cached.position((int) start).limit((int) (start + length));
+            while (slice.hasRemaining()) target.write(slice);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // O conector grava o arquivo com sendfile depois que o servlet retorna
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        if (length >= asyncThreshold && request.isAsyncSupported()) {
+            writeAsync(file, start, length, request, response);
+            return;
+        }
+        transfer(file, start, length, response.getOutputStream());
+    }
+
+    // Sem sendfile (ex.: TLS), um cliente lento prenderia a thread até o fim da transferência.
+    // Com I/O assíncrono do servlet a thread volta ao pool e o container chama o WriteListener
+    // sempre que o socket aceita mais bytes.
+    private void writeAsync(Path file, long start, long length,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            var async = request.startAsync(request, response);
+            async.setTimeout(asyncTimeoutMillis);
+            var listener = new FileWriteListener(channel, start, start + length, async, response.getOutputStream());
+            async.addListener(listener);
+            response.getOutputStream().setWriteListener(listener);
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Grava enquanto isReady() e retorna; o container chama onWritePossible de novo quando o
+    // buffer do socket esvaziar. As chamadas de uma mesma requisição nunca são concorrentes.
+    private final class FileWriteListener implements WriteListener, AsyncListener {
+
+        private final FileChannel channel;
+        private final AsyncContext async;
+        private final ServletOutputStream output;
+        private final long end;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long position;
+        private boolean finished;
+
+        private FileWriteListener(FileChannel channel, long start, long end, AsyncContext async,
+                                  ServletOutputStream output) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.async = async;
+            this.output = output;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (output.isReady()) {
+                if (position >= end) {
+                    finish();
+                    return;
+                }
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    // arquivo encolheu durante o envio: encerra com o que foi possível mandar
+                    finish();
+                    return;
+                }
+                position += read;
+                output.write(buffer.array(), 0, read);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.info("Download interrupted: " + t.getMessage());
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            logger.info("Download timed out at byte " + position);
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closeChannel();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void finish() {
+            closeChannel();
+            if (finished) return;
+            finished = true;
+            try {
+                async.complete();
+            } catch (IllegalStateException ignored) {
+                // já concluída pelo container (erro ou timeout)
+            }
+        }
+
+        private void closeChannel() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // somente leitura: nada a perder
+            }
+        }
+    }
+
+    // ZIP gravado direto na saída, entrada por entrada: nada é montado em disco nem acumulado em memória.
+    // Já comprimidos vão como STORED, que exige CRC e tamanho no cabeçalho local (vindos de uma leitura
+    // prévia do arquivo); o resto vai com DEFLATE, cujo CRC e tamanhos seguem no data descriptor.
+    public void writeZip(Map<String, Path> entries, OutputStream output) throws IOException {
+        var zip = new ZipOutputStream(output);
+        for (var file : entries.entrySet()) {
+            var entry = new ZipEntry(file.getKey());
+            entry.setLastModifiedTime(Files.getLastModifiedTime(file.getValue()));
+            if (isPrecompressed(file.getKey())) {
+                long size = Files.size(file.getValue());
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(size);
+                entry.setCompressedSize(size);
+                entry.setCrc(crc32(file.getValue()));
+            }
+            zip.putNextEntry(entry);
+            Files.copy(file.getValue(), zip);
+            zip.closeEntry();
+        }
+        // finish e não close: quem fecha a saída da resposta é o container
+        zip.finish();
+    }
+
+    public static boolean isPrecompressed(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        return extension != null && PRECOMPRESSED_EXTENSIONS.contains(extension.toLowerCase());
+    }
+
+    private static long crc32(Path file) throws IOException {
+        var crc = new CRC32();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                crc.update(buffer.flip());
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    // Tipo informado no upload, para extensões que a tabela do Spring não conhece
+    private static Optional<MediaType> indexedType(StoredFile metadata) {
+        if (metadata == null || metadata.getContentType() == null) return Optional.empty();
+        try {
+            return Optional.of(MediaType.parseMediaType(metadata.getContentType()));
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+    }
+
+    // If-Range: só honra o Range se o validador ainda corresponder ao arquivo atual
+    private static ByteRange rangeIfStillValid(HttpServletRequest request, long size, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.equals(eTag)) return null;
+            } else {
+                long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+                if (since < 0 || lastModified / 1000 > since / 1000) return null;
+            }
+        }
+        return ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+    }
+
+    // Leitura posicional direto no array que vai para o OutputStream: uma cópia só. transferTo para
+    // Channels.newChannel(OutputStream) faria duas (buffer temporário do JDK e o array do canal)
+    private void transfer(Path file, long start, long length, OutputStream output) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, length));
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                int read = channel.read(buffer, position);
+                if (read <= 0) break;
+                output.write(buffer.array(), 0, read);
+                position += read;
+                remaining -= read;
+            }
+        } catch (IOException e) {
+            logger.info("Download interrupted: " + e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.api.services;
+
+import com.example.api.config.CacheConfig;
+import com.example.api.config.FileStorageConfig;
+import com.example.api.model.StoredFile;
+import com.example.api.repositories.StoredFileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.logging.Logger;
+
+// Índice de metadados gravado no upload (tamanho, tipo, SHA-256, data), para downloads, HEAD e
+// checagens de existência não dependerem do sistema de arquivos. Fica em memória no cache
+// FILE_METADATA, aquecido com os uploads mais recentes quando a aplicação sobe.
+@Service
+public class FileMetadataServices {
+
+    private Logger logger = Logger.getLogger(FileMetadataServices.class.getName());
+
+    private static final int WARMUP_PAGE_SIZE = 1000;
+
+    private final StoredFileRepository repository;
+    private final CacheManager cacheManager;
+    private final int warmupSize;
+
+    @Autowired
+    public FileMetadataServices(FileStorageConfig fileStorageConfig, StoredFileRepository repository,
+                                CacheManager cacheManager) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.warmupSize = fileStorageConfig.getMetadataWarmupSize();
+    }
+
+    // null: arquivo fora do índice (gravado antes dele existir) ou inexistente. As faltas ficam por pouco
+    // tempo em FILE_METADATA_MISSES, para um nome ausente (404, arquivo ainda não migrado) não ir ao banco
+    // a cada download; uma entrada no índice tem precedência e o save apaga a falta
+    public StoredFile find(String filename) {
+        var stored = metadataCache().get(filename, StoredFile.class);
+        if (stored != null || missesCache().get(filename) != null) return stored;
+
+        stored = repository.findById(filename).orElse(null);
+        if (stored != null) metadataCache().put(filename, stored);
+        else missesCache().put(filename, Boolean.TRUE);
+        return stored;
+    }
+
+    public StoredFile save(StoredFile storedFile) {
+        var saved = repository.save(storedFile);
+        metadataCache().put(storedFile.getFileName(), saved);
+        missesCache().evict(storedFile.getFileName());
+        return saved;
+    }
+
+    public long countBySha256(String sha256) {
+        return repository.countBySha256(sha256);
+    }
+
+    private Cache metadataCache() {
+        return cacheManager.getCache(CacheConfig.FILE_METADATA);
+    }
+
+    private Cache missesCache() {
+        return cacheManager.getCache(CacheConfig.FILE_METADATA_MISSES);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int warmUp() {
+        var cache = cacheManager.getCache(CacheConfig.FILE_METADATA);
+        if (cache == null || warmupSize <= 0) return 0;
+
+        int loaded = 0;
+        var page = PageRequest.of(0, Math.min(WARMUP_PAGE_SIZE, warmupSize));
+        while (loaded < warmupSize) {
+            var slice = repository.findAllByOrderByUploadedAtDesc(page);
+            for (var storedFile : slice) {
+                if (loaded++ >= warmupSize) break;
+                cache.putIfAbsent(storedFile.getFileName(), storedFile);
+            }
+            if (!slice.hasNext()) break;
+            page = page.next();
+        }
+        logger.info("Warmed file metadata index with " + Math.min(loaded, warmupSize) + " entries");
+        return Math.min(loaded, warmupSize);
+    }
+}
@@ -1,59 +1,369 @@
 package com.example.api.services;
 
 import com.example.api.config.FileStorageConfig;
+import com.example.api.data.vo.v1.UploadFileResponseVO;
 import com.example.api.exceptions.FileStorageException;
+import com.example.api.exceptions.FileTooLargeException;
 import com.example.api.exceptions.MyFileNotFoundException;
+import com.example.api.model.StoredFile;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
 
 @Service
 public class FileStorageServices {
+
+    private Logger logger = Logger.getLogger(FileStorageServices.class.getName());
+
+    // Tamanho do bloco de cópia na gravação em streaming
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final Path fileStorageLocation;
 
+    private final long maxFileSize;
+
+    // Layout em subdiretórios pelo hash do nome, para não acumular centenas de milhares de entradas na raiz
+    private final boolean sharded;
+
+    // Modo endereçado por conteúdo: blobs em .blobs/ab/<sha256>, nomes mapeados pela tabela stored_files
+    private final boolean contentAddressed;
+    private final Path blobLocation;
+
+    // Locks por faixa: no modo endereçado por conteúdo, pelo SHA-256, para a deduplicação (blob existe ->
+    // só metadado) e a coleta do blob sem referências (contagem == 0 -> apaga) não se intercalarem;
+    // no modo plain, pelo nome, para o arquivo no disco e a linha do índice virem do mesmo upload
+    private final ReentrantLock[] storageLocks = new ReentrantLock[64];
+
+    // Arquivos temporários ficam no mesmo sistema de arquivos do destino, para o rename ser atômico
+    private final Path tempLocation;
+
+    private final FileMetadataServices metadata;
+
+    private final FileVariantServices variants;
+
+    private final FileCacheServices hotFiles;
+
+    // Threads de gravação dos uploads múltiplos, compartilhadas (Java 17: threads de plataforma, sem virtual threads);
+    // o limite de paralelismo é por requisição, em storeFiles
+    private final ExecutorService uploadExecutor;
+
+    private final int uploadParallelism;
+
     @Autowired
-    public FileStorageServices(FileStorageConfig fileStorageConfig) {
+    public FileStorageServices(FileStorageConfig fileStorageConfig, FileMetadataServices metadata,
+                               FileVariantServices variants, FileCacheServices hotFiles) {
         Path path = Paths.get(fileStorageConfig.getUploadDir())
                 .toAbsolutePath().normalize();
 
         this.fileStorageLocation = path;
+        this.maxFileSize = fileStorageConfig.getMaxFileSize().toBytes();
+        this.sharded = fileStorageConfig.getLayout() == FileStorageConfig.Layout.SHARDED;
+        this.tempLocation = path.resolve(".tmp");
+        this.blobLocation = path.resolve(".blobs");
+        this.contentAddressed = fileStorageConfig.getStorageMode() == FileStorageConfig.StorageMode.CONTENT_ADDRESSED;
+        this.metadata = metadata;
+        this.variants = variants;
+        this.hotFiles = hotFiles;
+        for (int i = 0; i < storageLocks.length; i++) storageLocks[i] = new ReentrantLock();
+
+        var counter = new AtomicInteger();
+        this.uploadParallelism = Math.max(1, fileStorageConfig.getUploadParallelism());
+        this.uploadExecutor = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "file-upload-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
 
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
+            if (contentAddressed) Files.createDirectories(this.blobLocation);
         } catch (Exception e) {
             throw new FileStorageException(
                     "Could not create the directory where the uploaded files will be stored!", e);
         }
     }
 
+    // Grava os arquivos em paralelo; cada posição do resultado corresponde à mesma posição da entrada,
+    // com o erro no próprio item quando a gravação daquele arquivo falha
+    public List<UploadFileResponseVO> storeFiles(List<MultipartFile> files) {
+        // No máximo uploadParallelism gravações desta requisição ao mesmo tempo, sem limitar as demais
+        var permits = new Semaphore(uploadParallelism);
+        var futures = files.stream()
+                .map(file -> {
+                    permits.acquireUninterruptibly();
+                    return CompletableFuture.supplyAsync(() -> storeQuietly(file), uploadExecutor)
+                            .whenComplete((response, error) -> permits.release());
+                })
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private UploadFileResponseVO storeQuietly(MultipartFile file) {
+        try {
+            return new UploadFileResponseVO(storeFile(file), null, file.getContentType(), file.getSize());
+        } catch (RuntimeException e) {
+            var failed = new UploadFileResponseVO(file.getOriginalFilename(), null, file.getContentType(), file.getSize());
+            failed.setError(e.getMessage());
+            return failed;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
+
     public String storeFile(MultipartFile file) {
-        String filename = StringUtils.cleanPath(file.getOriginalFilename());
+        String filename = cleanFilename(file.getOriginalFilename());
+        Path temp = null;
         try {
-            // Filename..txt
-            if (filename.contains("..")) {
-                throw new FileStorageException(
-                        "Sorry! Filename contains invalid path sequence " + filename);
-            }
-            Path targetLocation = this.fileStorageLocation.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            return filename;
+            // transferTo(File) passa por Part.write: o Tomcat renomeia o arquivo que já gravou em disco
+            // quando está no mesmo sistema de arquivos (transferTo(Path) sempre copiaria o stream).
+            // Partes pequenas, mantidas em memória, são gravadas; e o arquivo ainda é lido uma vez para
+            // o SHA-256. Só o PUT /uploadFile/{filename} (storeStream) grava e calcula o hash numa passada
+            temp = Files.createTempFile(tempLocation, ".upload-", ".part");
+            file.transferTo(temp.toFile());
+            return storeCompleted(temp, filename, file.getContentType()).getFileName();
         } catch (Exception e) {
+            deleteQuietly(temp);
             throw new FileStorageException(
                     "Could not store file " + filename + ". Please try again!", e);
         }
     }
 
+    // Grava o corpo da requisição direto em um temporário no diretório de destino, calculando
+    // tamanho e SHA-256 na mesma passada, e o move atomicamente para o nome final
+    public UploadFileResponseVO storeStream(String originalFilename, String contentType, InputStream input) {
+        String filename = cleanFilename(originalFilename);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempLocation, ".upload-", ".part");
+            var digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    // o corpo não passa pelo limite do multipart: para de gravar ao passar do máximo
+                    if (size + read > maxFileSize)
+                        throw new FileTooLargeException("File " + filename + " exceeds the maximum size of "
+                                + maxFileSize + " bytes");
+                    digest.update(buffer, 0, read);
+                    var chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) channel.write(chunk);
+                    size += read;
+                }
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            place(temp, filename, sha256, size, contentType);
+            return new UploadFileResponseVO(filename, null, contentType, size, sha256);
+        } catch (FileTooLargeException e) {
+            deleteQuietly(temp);
+            throw e;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException(
+                    "Could not store file " + filename + ". Please try again!", e);
+        }
+    }
+
+    // Arquivo já montado no mesmo sistema de arquivos (upload retomável): só é lido para o hash
+    // e depois renomeado para o destino, sem copiar os bytes
+    public UploadFileResponseVO storeCompleted(Path completed, String originalFilename, String contentType) {
+        String filename = cleanFilename(originalFilename);
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            try (var channel = FileChannel.open(completed, StandardOpenOption.READ)) {
+                var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                int read;
+                while ((read = channel.read(buffer)) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                    size += read;
+                }
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            place(completed, filename, sha256, size, contentType);
+            return new UploadFileResponseVO(filename, null, contentType, size, sha256);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new FileStorageException(
+                    "Could not store file " + filename + ". Please try again!", e);
+        }
+    }
+
+    // Move para o destino e registra no índice de metadados; no modo endereçado por conteúdo,
+    // conteúdo já armazenado vira só metadado e o temporário é descartado
+    private void place(Path temp, String filename, String sha256, long size, String contentType) throws IOException {
+        var previous = contentAddressed ? metadata.find(filename) : null;
+
+        Path target = contentAddressed ? blobPath(sha256) : plainPath(filename);
+        var lock = storageLock(contentAddressed ? sha256 : filename);
+        lock.lock();
+        try {
+            if (contentAddressed && Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(temp, target);
+                hotFiles.invalidate(target);
+                // No modo plain o caminho é o do nome: a variante do conteúdo anterior não vale mais
+                if (!contentAddressed) variants.discard(target);
+            }
+            metadata.save(new StoredFile(filename, sha256, size, contentType, new Date()));
+        } finally {
+            lock.unlock();
+        }
+
+        // Sobrescrita: o blob antigo só é apagado se nenhum outro nome o referencia
+        if (previous != null && !previous.getSha256().equals(sha256)) collectBlob(previous.getSha256());
+        variants.schedule(target, filename);
+    }
+
+    // Contagem e remoção sob o lock do hash: um upload do mesmo conteúdo, que reaproveitaria o blob,
+    // espera e passa a gravá-lo de novo, ou termina antes e é contado
+    private void collectBlob(String sha256) throws IOException {
+        var lock = storageLock(sha256);
+        lock.lock();
+        try {
+            if (metadata.countBySha256(sha256) > 0) return;
+            Files.deleteIfExists(blobPath(sha256));
+            hotFiles.invalidate(blobPath(sha256));
+            variants.discard(blobPath(sha256));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock storageLock(String key) {
+        return storageLocks[Math.floorMod(key.hashCode(), storageLocks.length)];
+    }
+
+    // Caminho do arquivo armazenado, garantindo que está dentro do diretório de upload
+    public Path loadFile(String requestedFilename) {
+        // Mesma regra do upload: sem / nem .., nada de .uploads, .blobs, .variants ou .tmp
+        String filename = validFilename(requestedFilename);
+        if (contentAddressed) {
+            var stored = metadata.find(filename);
+            if (stored != null && Files.isRegularFile(blobPath(stored.getSha256())))
+                return blobPath(stored.getSha256());
+            // sem blob: arquivo gravado antes de o modo ser ativado
+        }
+
+        Path filePath = plainPath(filename).normalize();
+        if (sharded && !Files.isRegularFile(filePath)) {
+            // ainda na raiz: gravado antes do layout sharded e não migrado
+            filePath = this.fileStorageLocation.resolve(filename).normalize();
+        }
+        if (!filePath.startsWith(this.fileStorageLocation) || !Files.isRegularFile(filePath))
+            throw new MyFileNotFoundException("File not found " + filename);
+        return filePath;
+    }
+
+    // Migração única: move os arquivos soltos na raiz para o shard do nome (rename, sem cópia).
+    // Durante a migração loadFile ainda acha os que faltam na raiz; as URLs de download não mudam.
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrateFlatFiles() {
+        if (!sharded) return 0;
+        int migrated = 0;
+        try (var files = Files.list(this.fileStorageLocation)) {
+            for (Path flat : (Iterable<Path>) files::iterator) {
+                String filename = flat.getFileName().toString();
+                if (filename.startsWith(".") || !Files.isRegularFile(flat)) continue;
+
+                Path target = plainPath(filename);
+                try {
+                    Files.createDirectories(target.getParent());
+                    Files.move(flat, target);
+                    hotFiles.invalidate(flat);
+                    variants.move(flat, target);
+                    migrated++;
+                } catch (FileAlreadyExistsException e) {
+                    // o shard já tem uma versão gravada depois da troca de layout: a da raiz é antiga
+                    Files.deleteIfExists(flat);
+                    variants.discard(flat);
+                } catch (IOException e) {
+                    logger.warning("Could not migrate " + filename + " to the sharded layout: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Could not list the upload directory for migration: " + e.getMessage());
+        }
+        if (migrated > 0) logger.info("Migrated " + migrated + " files to the sharded layout");
+        return migrated;
+    }
+
+    // Metadados do índice, sem tocar o sistema de arquivos; null para arquivos anteriores ao índice
+    public StoredFile loadMetadata(String filename) {
+        return metadata.find(validFilename(filename));
+    }
+
+    // Arquivos de um download em ZIP, na ordem pedida e sem repetições; os nomes já validados
+    // são os nomes das entradas. Tudo resolvido antes: um nome inexistente vira 404, não um ZIP truncado
+    public Map<String, Path> loadFiles(List<String> filenames) {
+        var files = new LinkedHashMap<String, Path>();
+        for (String filename : filenames) {
+            String valid = validFilename(filename);
+            if (!files.containsKey(valid)) files.put(valid, loadFile(valid));
+        }
+        return files;
+    }
+
+    // Um nome que o upload recusaria não pode existir: 404 em vez do erro de gravação
+    private static String validFilename(String filename) {
+        try {
+            return cleanFilename(filename);
+        } catch (FileStorageException e) {
+            throw new MyFileNotFoundException("File not found " + filename);
+        }
+    }
+
+    // Variante gzip pronta do arquivo devolvido por loadFile, ou null
+    public Path loadGzipVariant(Path file) {
+        return variants.findGzip(file);
+    }
+
     public Resource loadFileAsResource(String filename) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(filename).normalize();
+            Path filePath = loadFile(filename);
             Resource resource = new UrlResource(filePath.toUri());
             if (resource.exists()) return resource;
             else throw new MyFileNotFoundException("File not found");
@@ -61,4 +371,47 @@ public class FileStorageServices {
             throw new MyFileNotFoundException("File not found" + filename, e);
         }
     }
+
+    static String cleanFilename(String originalFilename) {
+        String filename = StringUtils.cleanPath(originalFilename == null ? "" : originalFilename);
+        // Filename..txt
+        if (filename.isBlank() || filename.contains("..") || filename.contains("/") || filename.startsWith(".")) {
+            throw new FileStorageException(
+                    "Sorry! Filename contains invalid path sequence " + filename);
+        }
+        return filename;
+    }
+
+    // Dois níveis de 256 diretórios pelo SHA-256 do nome; o arquivo mantém o nome original
+    private Path plainPath(String filename) {
+        if (!sharded) return this.fileStorageLocation.resolve(filename);
+        try {
+            String hash = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(filename.getBytes(StandardCharsets.UTF_8)));
+            return this.fileStorageLocation.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(filename);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path blobPath(String sha256) {
+        return blobLocation.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // o temporário órfão não afeta os arquivos já armazenados
+        }
+    }
 }
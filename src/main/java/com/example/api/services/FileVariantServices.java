@@ -0,0 +1,219 @@
+package com.example.api.services;
+
+import com.example.api.config.FileStorageConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Mantém variantes gzip dos arquivos de texto armazenados, geradas em segundo plano após o upload,
+// para o download enviar bytes já comprimidos sem gastar CPU por requisição.
+// A variante fica em .variants/<caminho relativo do arquivo>.gz e herda o mtime do original:
+// se o original for sobrescrito os mtimes divergem e a variante deixa de ser usada.
+@Service
+public class FileVariantServices {
+
+    private Logger logger = Logger.getLogger(FileVariantServices.class.getName());
+
+    // Só guarda a variante se ela economizar pelo menos 10%
+    private static final double MAX_RATIO = 0.9;
+
+    // Tipos que costumam comprimir bem, além de text/*
+    private static final List<MediaType> COMPRESSIBLE = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_NDJSON,
+            MediaType.valueOf("application/javascript"), MediaType.valueOf("application/x-yaml"),
+            MediaType.valueOf("image/svg+xml"));
+
+    private final Path root;
+    private final Path variantLocation;
+    private final boolean enabled;
+    private final FileCacheServices hotFiles;
+    private final long minSize;
+
+    // Uma thread de baixa prioridade; com a fila cheia a compressão é simplesmente pulada
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public FileVariantServices(FileStorageConfig fileStorageConfig, FileCacheServices hotFiles) {
+        this.root = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        this.variantLocation = root.resolve(".variants");
+        this.enabled = fileStorageConfig.isCompressVariants();
+        this.hotFiles = hotFiles;
+        this.minSize = fileStorageConfig.getCompressMinSize();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    var thread = new Thread(runnable, "file-variants");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // Agenda a compressão de um arquivo recém-gravado, se o tipo e o tamanho justificarem
+    public void schedule(Path storedFile, String filename) {
+        if (!enabled || !isCompressible(filename)) return;
+        executor.execute(() -> {
+            try {
+                compress(storedFile);
+            } catch (IOException e) {
+                logger.warning("Could not compress " + filename + ": " + e.getMessage());
+            }
+        });
+    }
+
+    // Variante gzip ainda válida para o arquivo, ou null. Além do mtime (granularidade grossa em alguns
+    // sistemas de arquivos, e preservado por cópias), confere o tamanho original gravado no trailer do gzip
+    public Path findGzip(Path storedFile) {
+        if (!enabled) return null;
+        try {
+            Path gzip = gzipPath(storedFile);
+            if (Files.isRegularFile(gzip)
+                    && Files.getLastModifiedTime(gzip).equals(Files.getLastModifiedTime(storedFile))
+                    && originalSize(gzip) == (Files.size(storedFile) & 0xFFFFFFFFL)) return gzip;
+        } catch (IOException ignored) {
+            // sem variante: o original é enviado
+        }
+        return null;
+    }
+
+    // Acompanha o arquivo quando ele muda de lugar; o rename preserva o mtime, então a variante continua válida
+    public void move(Path from, Path to) {
+        try {
+            Path gzip = gzipPath(from);
+            if (!Files.exists(gzip)) return;
+            Path target = gzipPath(to);
+            Files.createDirectories(target.getParent());
+            Files.move(gzip, target, StandardCopyOption.REPLACE_EXISTING);
+            hotFiles.invalidate(gzip);
+            hotFiles.invalidate(target);
+        } catch (IOException ignored) {
+            // sem a variante o original é enviado e ela pode ser gerada de novo
+        }
+    }
+
+    public void discard(Path storedFile) {
+        try {
+            Files.deleteIfExists(gzipPath(storedFile));
+            hotFiles.invalidate(gzipPath(storedFile));
+        } catch (IOException ignored) {
+            // variante órfã é ignorada pelo mtime e pelo tamanho
+        }
+    }
+
+    public static boolean isCompressible(String filename) {
+        var type = MediaTypeFactory.getMediaType(filename).orElse(null);
+        if (type == null) return false;
+        return "text".equals(type.getType())
+                || COMPRESSIBLE.stream().anyMatch(compressible -> compressible.includes(type))
+                || type.getSubtype().endsWith("+json") || type.getSubtype().endsWith("+xml");
+    }
+
+    // Accept-Encoding aceita gzip com q > 0, explicitamente ou por *
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            boolean accepted = quality(tokens) > 0;
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) return accepted;
+            if ("*".equals(coding)) wildcard = accepted;
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private void compress(Path storedFile) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(storedFile);
+        long size = Files.size(storedFile);
+        Path gzip = gzipPath(storedFile);
+        if (size < minSize) {
+            Files.deleteIfExists(gzip);
+            return;
+        }
+        // Blob do modo content-addressed já comprimido por outro nome
+        if (findGzip(storedFile) != null) return;
+
+        Files.createDirectories(gzip.getParent());
+        Path temp = Files.createTempFile(gzip.getParent(), ".variant-", ".part");
+        try {
+            // Fora do caminho da requisição: vale usar o nível máximo
+            try (var output = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024) {
+                { def.setLevel(Deflater.BEST_COMPRESSION); }
+            }) {
+                Files.copy(storedFile, output);
+            }
+
+            // Sobrescrito durante a compressão, ou não comprimiu o suficiente
+            if (!modified.equals(Files.getLastModifiedTime(storedFile)) || Files.size(storedFile) != size
+                    || Files.size(temp) > size * MAX_RATIO) {
+                Files.deleteIfExists(gzip);
+                return;
+            }
+            Files.setLastModifiedTime(temp, modified);
+            try {
+                Files.move(temp, gzip, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, gzip, StandardCopyOption.REPLACE_EXISTING);
+            }
+            hotFiles.invalidate(gzip);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ISIZE (RFC 1952): últimos 4 bytes, tamanho descomprimido módulo 2^32, little-endian
+    private static long originalSize(Path gzip) throws IOException {
+        try (var channel = FileChannel.open(gzip, StandardOpenOption.READ)) {
+            var trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            long position = channel.size() - 4;
+            if (position < 0) return -1;
+            while (trailer.hasRemaining() && channel.read(trailer, position + trailer.position()) >= 0) { }
+            return trailer.hasRemaining() ? -1 : Integer.toUnsignedLong(trailer.getInt(0));
+        }
+    }
+
+    private Path gzipPath(Path storedFile) {
+        return variantLocation.resolve(root.relativize(storedFile.toAbsolutePath().normalize()) + ".gz");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
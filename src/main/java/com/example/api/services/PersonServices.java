@@ -1,36 +1,80 @@
 package com.example.api.services;
 
+import com.example.api.config.CacheConfig;
 import com.example.api.controllers.PersonController;
+import com.example.api.data.vo.v1.CursorPageVO;
+import com.example.api.data.vo.v1.LeanPageVO;
 import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.data.vo.v1.SliceVO;
+import com.example.api.data.vo.v1.TotalCountVO;
+import com.example.api.exceptions.PreconditionFailedException;
 import com.example.api.exceptions.RequiredObjectIsNullException;
 import com.example.api.exceptions.ResourceNotFoundException;
+import com.example.api.hateoas.LinkTemplates;
 import com.example.api.mapper.custom.DozerMapper;
 import com.example.api.model.Person;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import com.example.api.repositories.PersonRepository;
+import com.example.api.serialization.export.ExportFormat;
+import com.example.api.serialization.export.ExportWriter;
+import com.example.api.util.CachedCount;
+import com.example.api.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import org.springframework.web.util.UriUtils;
 
 @Service
 public class PersonServices {
 
     private Logger logger = Logger.getLogger(PersonServices.class.getName());
 
+    private static final LinkTemplates links = LinkTemplates.of(PersonController.class);
+
+    // Deve acompanhar o ngram_token_size do servidor MySQL (padrão 2)
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
     @Autowired
     PersonRepository repository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${api.count-cache-ttl:30000}")
+    private long countCacheTtl = 30000;
+
+    private final CachedCount totalCount = new CachedCount();
+
+    private static final String[] EXPORT_COLUMNS = {"id", "firstName", "lastName", "address", "gender", "enabled"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<PersonVO> assembler;
 
@@ -40,51 +84,201 @@ public class PersonServices {
 
         var personPage = repository.findAll(pageable);
 
-        var personVosPage = personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class));
-        personVosPage.map(
-                p -> p.add(
-                        linkTo(methodOn(PersonController.class)
-                                .findById(p.getKey())).withSelfRel()));
-
-        Link link = linkTo(
-                methodOn(PersonController.class)
-                        .findAll(pageable.getPageNumber(),
-                                pageable.getPageSize(),
-                                "asc")).withSelfRel();
-
-        return assembler.toModel(personVosPage, link);
+        return toPagedModel(personPage, pageable);
     }
 
     public PagedModel<EntityModel<PersonVO>> findPersonByName(String firstname, Pageable pageable) {
 
         logger.info("Finding all people!");
 
-        var personPage = repository.findPersonsByName(firstname, pageable);
+        var personPage = searchByName(firstname, pageable);
+
+        return toPagedModel(personPage, pageable);
+    }
+
+    public LeanPageVO<PersonVO> findAllLean(Pageable pageable) {
+
+        logger.info("Finding all people (lean)!");
+
+        var personPage = repository.findAll(pageable);
+
+        return LeanPageVO.of(personPage, p -> DozerMapper.parseObject(p, PersonVO.class));
+    }
+
+    public LeanPageVO<PersonVO> findPersonByNameLean(String firstname, Pageable pageable) {
+
+        logger.info("Finding people by name (lean)!");
+
+        var personPage = searchByName(firstname, pageable);
+
+        return LeanPageVO.of(personPage, p -> DozerMapper.parseObject(p, PersonVO.class));
+    }
+
+    // Termos com pelo menos um token ngram usam o índice FULLTEXT; os menores caem no LIKE
+    private Page<Person> searchByName(String firstname, Pageable pageable) {
+        if (!usesNgramIndex(firstname)) return repository.findPersonsByName(firstname, pageable);
+
+        var page = repository.searchPersonsByName(toPhrase(firstname), toColumnSort(pageable));
+        return new PageImpl<>(page.getContent(), pageable, page.getTotalElements());
+    }
+
+    private Slice<Person> searchSliceByName(String firstname, Pageable pageable) {
+        if (!usesNgramIndex(firstname)) return repository.findSliceOfPersonsByName(firstname, pageable);
+
+        var slice = repository.searchSliceOfPersonsByName(toPhrase(firstname), toColumnSort(pageable));
+        return new SliceImpl<>(slice.getContent(), pageable, slice.hasNext());
+    }
+
+    private static boolean usesNgramIndex(String firstname) {
+        return firstname != null && firstname.strip().length() >= NGRAM_TOKEN_SIZE;
+    }
+
+    // Busca de frase: o parser ngram exige os bigramas em sequência, equivalente a '%termo%'
+    private static String toPhrase(String firstname) {
+        return "\"" + firstname.strip().replace("\"", " ") + "\"";
+    }
 
-        var personVosPage = personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class));
-        personVosPage.map(
-                p -> p.add(
-                        linkTo(methodOn(PersonController.class)
-                                .findById(p.getKey())).withSelfRel()));
+    // A query nativa ordena por coluna, não por propriedade da entidade (firstName -> first_name)
+    private static Pageable toColumnSort(Pageable pageable) {
+        var orders = pageable.getSort().stream()
+                .map(order -> order.withProperty(
+                        order.getProperty().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase()))
+                .toList();
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    private PagedModel<EntityModel<PersonVO>> toPagedModel(Page<Person> personPage, Pageable pageable) {
+        var baseUri = links.baseUri();
+
+        var personVosPage = personPage.map(p -> {
+            var vo = DozerMapper.parseObject(p, PersonVO.class);
+            vo.add(links.selfLink(baseUri, vo.getKey()));
+            return vo;
+        });
 
-        Link link = linkTo(
-                methodOn(PersonController.class)
-                        .findAll(pageable.getPageNumber(),
-                                pageable.getPageSize(),
-                                "asc")).withSelfRel();
+        Link link = links.pageLink(baseUri, pageable.getPageNumber(), pageable.getPageSize(), "asc");
 
         return assembler.toModel(personVosPage, link);
-    }   
+    }
+
+    public SliceVO<PersonVO> findAllSlice(Pageable pageable) {
+
+        logger.info("Finding all people (slice)!");
+
+        var slice = repository.findSliceBy(pageable);
+
+        return toSliceVO(slice, "/slice");
+    }
+
+    public SliceVO<PersonVO> findPersonByNameSlice(String firstname, Pageable pageable) {
+
+        logger.info("Finding people by name (slice)!");
+
+        var slice = searchSliceByName(firstname, pageable);
+
+        return toSliceVO(slice,
+                "/findPersonByName/" + UriUtils.encodePathSegment(firstname, StandardCharsets.UTF_8) + "/slice");
+    }
+
+    private SliceVO<PersonVO> toSliceVO(Slice<Person> slice, String path) {
+        var baseUri = links.baseUri();
+
+        var content = slice.getContent().stream().map(e -> {
+            var vo = DozerMapper.parseObject(e, PersonVO.class);
+            vo.add(links.selfLink(baseUri, vo.getKey()));
+            return vo;
+        }).toList();
+
+        var direction = slice.getSort().stream()
+                .findFirst()
+                .map(order -> order.getDirection().name().toLowerCase())
+                .orElse("asc");
+
+        var sliceVO = new SliceVO<>(content, slice.getNumber(), slice.getSize(), slice.hasNext());
+        sliceVO.add(links.sliceLink(baseUri, path, slice.getNumber(), slice.getSize(), direction, IanaLinkRelations.SELF));
+        if (slice.hasNext())
+            sliceVO.add(links.sliceLink(baseUri, path, slice.getNumber() + 1, slice.getSize(), direction, IanaLinkRelations.NEXT));
+        return sliceVO;
+    }
+
+    // Total aproximado: o COUNT(*) é reaproveitado por até countCacheTtl ms
+    public TotalCountVO count() {
+
+        logger.info("Counting all people!");
+
+        return totalCount.get(countCacheTtl, repository::count);
+    }
+
+    public CursorPageVO<PersonVO> findAllByCursor(String cursor, Integer size, Sort.Direction direction) {
+
+        logger.info("Finding all people by cursor!");
+
+        var pageSize = Math.max(1, size);
+        var limit = Limit.of(pageSize + 1); // um registro extra indica se há próxima página
+
+        List<Person> entities;
+        if (cursor == null || cursor.isBlank()) {
+            entities = direction.isAscending()
+                    ? repository.findFirstOrderByFirstNameAsc(limit)
+                    : repository.findFirstOrderByFirstNameDesc(limit);
+        } else {
+            var position = KeysetCursor.decode(cursor);
+            direction = position.getDirection();
+            entities = direction.isAscending()
+                    ? repository.findAfterOrderByFirstNameAsc(position.getSortKey(), position.getId(), limit)
+                    : repository.findAfterOrderByFirstNameDesc(position.getSortKey(), position.getId(), limit);
+        }
+
+        var hasNext = entities.size() > pageSize;
+        if (hasNext) entities = entities.subList(0, pageSize);
+
+        var baseUri = links.baseUri();
+        var content = entities.stream().map(e -> {
+            var vo = DozerMapper.parseObject(e, PersonVO.class);
+            vo.add(links.selfLink(baseUri, vo.getKey()));
+            return vo;
+        }).toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            var last = entities.get(entities.size() - 1);
+            nextCursor = KeysetCursor.encode(direction, last.getId(), last.getFirstName());
+        }
+
+        var directionParam = direction.name().toLowerCase();
+        var page = new CursorPageVO<>(content, pageSize, nextCursor);
+        page.add(links.cursorLink(baseUri, cursor, pageSize, directionParam, IanaLinkRelations.SELF));
+        if (nextCursor != null)
+            page.add(links.cursorLink(baseUri, nextCursor, pageSize, directionParam, IanaLinkRelations.NEXT));
+        return page;
+    }
+
+    // Exporta todos os registros em streaming: cada entidade é mapeada, escrita e desanexada
+    // do contexto de persistência, mantendo o uso de heap constante
+    @Transactional
+    public void export(ExportFormat format, OutputStream output) throws IOException {
+
+        logger.info("Exporting all people!");
+
+        var writer = new ExportWriter<PersonVO>(format, output, EXPORT_COLUMNS, vo -> new Object[]{
+                vo.getKey(), vo.getFirstName(), vo.getLastName(), vo.getAddress(), vo.getGender(), vo.getEnabled()});
+
+        try (Stream<Person> entities = repository.streamAllBy()) {
+            Iterator<Person> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                var entity = iterator.next();
+                writer.write(DozerMapper.parseObject(entity, PersonVO.class));
+                entityManager.detach(entity);
+            }
+        }
+        writer.flush();
+    }
 
     public PersonVO findById(Long id) {
 
         logger.info("Finding one person!");
 
-        var entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-        var vo = DozerMapper.parseObject(entity, PersonVO.class);
-        vo.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
-        return vo;
+        return toVO(cachedEntity(id));
     }
 
     public PersonVO create(PersonVO person) {
@@ -93,9 +287,13 @@ public class PersonServices {
 
         logger.info("Creating one person!");
         var entity = DozerMapper.parseObject(person, Person.class);
-        var vo =  DozerMapper.parseObject(repository.save(entity), PersonVO.class);
-        vo.add(linkTo(methodOn(PersonController.class).findById(vo.getKey())).withSelfRel());
-        return vo;
+        // Sempre um registro novo: com id (ou version) vindo do cliente o save faria merge e falharia no lock otimista
+        entity.setId(null);
+        entity.setVersion(null);
+        var saved = repository.save(entity);
+        totalCount.invalidate();
+        cache(saved);
+        return toVO(saved);
     }
 
     public PersonVO update(PersonVO person) {
@@ -107,14 +305,19 @@ public class PersonServices {
         var entity = repository.findById(person.getKey())
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 
+        // If-Match: a versão enviada pelo cliente precisa ser a atual; a coluna @Version
+        // ainda protege a janela entre esta leitura e o save
+        if (person.getVersion() != null && !person.getVersion().equals(entity.getVersion()))
+            throw new PreconditionFailedException();
+
         entity.setFirstName(person.getFirstName());
         entity.setLastName(person.getLastName());
         entity.setAddress(person.getAddress());
         entity.setGender(person.getGender());
 
-        var vo =  DozerMapper.parseObject(repository.save(entity), PersonVO.class);
-        vo.add(linkTo(methodOn(PersonController.class).findById(vo.getKey())).withSelfRel());
-        return vo;
+        var saved = repository.save(entity);
+        cache(saved);
+        return toVO(saved);
     }
 
     @Transactional
@@ -126,9 +329,8 @@ public class PersonServices {
 
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-        var vo = DozerMapper.parseObject(entity, PersonVO.class);
-        vo.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
-        return vo;
+        cache(entity);
+        return toVO(entity);
     }
 
     public void delete(Long id) {
@@ -138,5 +340,34 @@ public class PersonServices {
         var entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
         repository.delete(entity);
+        totalCount.invalidate();
+        byIdCache().evict(id);
+    }
+
+    // O cache guarda uma cópia destacada da entidade, sem links e nunca entregue a quem chama:
+    // cada requisição monta o próprio VO, com o self link do host, esquema e prefixo dela.
+    // Chamadas concorrentes para o mesmo id aguardam uma única leitura no banco.
+    private Person cachedEntity(Long id) {
+        try {
+            return byIdCache().get(id, () -> DozerMapper.parseObject(repository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!")), Person.class));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void cache(Person entity) {
+        byIdCache().put(entity.getId(), DozerMapper.parseObject(entity, Person.class));
+    }
+
+    private Cache byIdCache() {
+        return cacheManager.getCache(CacheConfig.PERSON_BY_ID);
+    }
+
+    private PersonVO toVO(Person entity) {
+        var vo = DozerMapper.parseObject(entity, PersonVO.class);
+        vo.add(links.selfLink(vo.getKey()));
+        return vo;
     }
 }
@@ -0,0 +1,221 @@
+package com.example.api.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.data.vo.v1.UploadFileResponseVO;
+import com.example.api.data.vo.v1.UploadSessionVO;
+import com.example.api.exceptions.FileStorageException;
+import com.example.api.exceptions.FileTooLargeException;
+import com.example.api.exceptions.InvalidUploadException;
+import com.example.api.exceptions.MyFileNotFoundException;
+import com.example.api.exceptions.UploadConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Upload retomável no modelo do tus: a sessão declara o tamanho total, os pedaços chegam em
+// requisições separadas e são gravados na posição do offset de um único arquivo .part.
+// Ao concluir, o .part é renomeado para o destino, sem recopiar os bytes.
+// O offset é o tamanho do .part, então uma conexão que cai preserva o que já foi gravado.
+@Service
+public class ResumableUploadServices {
+
+    private Logger logger = Logger.getLogger(ResumableUploadServices.class.getName());
+
+    private final Path sessionLocation;
+    private final Duration sessionTtl;
+    private final long maxFileSize;
+    private final FileStorageServices storage;
+
+    // Sessões recebendo um pedaço (ou sendo concluídas) neste momento
+    private final Set<String> busy = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ResumableUploadServices(FileStorageConfig fileStorageConfig, FileStorageServices storage) {
+        // Dentro do diretório de upload, para o rename final ser atômico
+        this.sessionLocation = Paths.get(fileStorageConfig.getUploadDir())
+                .toAbsolutePath().normalize().resolve(".uploads");
+        this.sessionTtl = fileStorageConfig.getUploadSessionTtl();
+        this.maxFileSize = fileStorageConfig.getMaxFileSize().toBytes();
+        this.storage = storage;
+
+        try {
+            Files.createDirectories(this.sessionLocation);
+        } catch (Exception e) {
+            throw new FileStorageException(
+                    "Could not create the directory where the resumable uploads will be stored!", e);
+        }
+    }
+
+    public UploadSessionVO create(String originalFilename, String contentType, long length) {
+        String filename = FileStorageServices.cleanFilename(originalFilename);
+        if (length < 0) throw new InvalidUploadException("Upload-Length must not be negative!");
+        // append nunca grava além do Upload-Length declarado, então basta limitá-lo aqui
+        if (length > maxFileSize)
+            throw new FileTooLargeException("Upload-Length " + length + " exceeds the maximum size of "
+                    + maxFileSize + " bytes");
+
+        String id = UUID.randomUUID().toString();
+        var metadata = new Properties();
+        metadata.setProperty("fileName", filename);
+        metadata.setProperty("length", Long.toString(length));
+        if (contentType != null) metadata.setProperty("fileType", contentType);
+
+        try {
+            Files.createFile(partPath(id));
+            try (Writer writer = Files.newBufferedWriter(metadataPath(id))) {
+                metadata.store(writer, null);
+            }
+        } catch (IOException e) {
+            delete(id);
+            throw new FileStorageException("Could not create upload for " + filename + ". Please try again!", e);
+        }
+        return new UploadSessionVO(id, filename, contentType, length, 0);
+    }
+
+    public UploadSessionVO status(String id) {
+        var metadata = new Properties();
+        try (Reader reader = Files.newBufferedReader(metadataPath(id))) {
+            metadata.load(reader);
+            return new UploadSessionVO(id, metadata.getProperty("fileName"), metadata.getProperty("fileType"),
+                    Long.parseLong(metadata.getProperty("length")), Files.size(partPath(id)));
+        } catch (IOException e) {
+            throw new MyFileNotFoundException("Upload not found " + id);
+        }
+    }
+
+    // Grava o corpo a partir de offset, que precisa ser exatamente o que o servidor já tem
+    public UploadSessionVO append(String id, long offset, InputStream body) {
+        acquire(id);
+        try {
+            // lido só depois do acquire: outro PATCH no mesmo offset já terá avançado o .part
+            var session = status(id);
+            if (offset != session.getOffset())
+                throw new UploadConflictException(
+                        "Upload-Offset " + offset + " does not match the current offset " + session.getOffset());
+
+            long position = offset;
+            try (var channel = FileChannel.open(partPath(id), StandardOpenOption.WRITE)) {
+                var source = Channels.newChannel(body);
+                long transferred;
+                while (position < session.getLength()
+                        && (transferred = channel.transferFrom(source, position, session.getLength() - position)) > 0)
+                    position += transferred;
+                if (position == session.getLength() && body.read() != -1)
+                    throw new InvalidUploadException("Chunk exceeds the declared Upload-Length " + session.getLength());
+            } catch (IOException e) {
+                // o que chegou até a queda continua gravado; o cliente retoma a partir do novo offset
+                logger.info("Upload " + id + " interrupted at " + position + ": " + e.getMessage());
+            }
+            session.setOffset(position);
+            return session;
+        } finally {
+            release(id);
+        }
+    }
+
+    public UploadFileResponseVO complete(String id) {
+        acquire(id);
+        try {
+            // sessão abortada ou expirada enquanto isso: 404, não um .part que sumiu no meio
+            var session = status(id);
+            if (!session.isComplete())
+                throw new UploadConflictException(
+                        "Upload is incomplete: " + session.getOffset() + " of " + session.getLength() + " bytes");
+            var response = storage.storeCompleted(partPath(id), session.getFileName(), session.getFileType());
+            delete(id);
+            return response;
+        } finally {
+            release(id);
+        }
+    }
+
+    public void abort(String id) {
+        acquire(id);
+        try {
+            status(id);
+            delete(id);
+        } finally {
+            release(id);
+        }
+    }
+
+    // Sessões abandonadas: sem pedaço novo há mais que o TTL
+    @Scheduled(fixedDelayString = "${file.upload-session-cleanup-interval:3600000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - sessionTtl.toMillis();
+        try (var files = Files.list(sessionLocation)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".properties"))
+                    .map(file -> file.getFileName().toString().replace(".properties", ""))
+                    .filter(id -> lastActivity(id) < cutoff && busy.add(id))
+                    .forEach(id -> {
+                        try {
+                            delete(id);
+                        } finally {
+                            busy.remove(id);
+                        }
+                    });
+        } catch (IOException e) {
+            logger.warning("Could not purge expired uploads: " + e.getMessage());
+        }
+    }
+
+    // Pela forma canônica do UUID, para o mesmo upload com outra grafia não escapar do guarda
+    private void acquire(String id) {
+        if (!busy.add(checkId(id))) throw new UploadConflictException("Upload " + id + " is already being written");
+    }
+
+    private void release(String id) {
+        busy.remove(checkId(id));
+    }
+
+    private long lastActivity(String id) {
+        try {
+            return Files.getLastModifiedTime(Files.exists(partPath(id)) ? partPath(id) : metadataPath(id)).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void delete(String id) {
+        try {
+            Files.deleteIfExists(partPath(id));
+            Files.deleteIfExists(metadataPath(id));
+        } catch (IOException e) {
+            logger.warning("Could not delete upload " + id + ": " + e.getMessage());
+        }
+    }
+
+    private Path partPath(String id) {
+        return sessionLocation.resolve(checkId(id) + ".part");
+    }
+
+    private Path metadataPath(String id) {
+        return sessionLocation.resolve(checkId(id) + ".properties");
+    }
+
+    // O id vem da URL: só UUIDs, nada que escape do diretório de sessões
+    private static String checkId(String id) {
+        try {
+            return UUID.fromString(id).toString();
+        } catch (IllegalArgumentException e) {
+            throw new MyFileNotFoundException("Upload not found " + id);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.api.services;
 
+import com.example.api.config.CacheConfig;
 import com.example.api.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -37,4 +39,11 @@ public class UserServices implements UserDetailsService {
             throw new UsernameNotFoundException("Username " + username + " not found!");
         }
     }
+
+    // Status (habilitado e não bloqueado) usado pela autenticação por claims; usuário inexistente conta como inativo
+    @Cacheable(cacheNames = CacheConfig.USER_STATUS, key = "#username")
+    public boolean isActive(String username) {
+        logger.info("Checking status of user " + username + "!");
+        return Boolean.TRUE.equals(repository.isActive(username));
+    }
 }
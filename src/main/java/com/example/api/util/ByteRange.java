@@ -0,0 +1,63 @@
+package com.example.api.util;
+
+// Um único intervalo de bytes [start, end] (inclusivo) de um cabeçalho Range "bytes=..."
+public final class ByteRange {
+
+    // Range válido sintaticamente, mas fora do arquivo: responder 416
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private final long start;
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    // null quando não há Range ou ele deve ser ignorado (malformado ou múltiplos intervalos): responde o arquivo inteiro
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) return null;
+
+        String spec = header.substring("bytes=".length()).strip();
+        if (spec.isEmpty() || spec.indexOf(',') >= 0) return null;
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).strip();
+            String last = spec.substring(dash + 1).strip();
+
+            if (first.isEmpty()) {
+                // bytes=-N: os últimos N bytes
+                if (last.isEmpty()) return null;
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) return UNSATISFIABLE;
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (end < start) return null;
+            if (start >= size) return UNSATISFIABLE;
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    public String toContentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+}
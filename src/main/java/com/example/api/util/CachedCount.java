@@ -0,0 +1,33 @@
+package com.example.api.util;
+
+import com.example.api.data.vo.v1.TotalCountVO;
+
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+// Guarda o resultado de um COUNT(*) por um tempo limitado; apenas uma thread recalcula quando expira
+public class CachedCount {
+
+    private volatile TotalCountVO value;
+
+    public TotalCountVO get(long ttlMillis, LongSupplier counter) {
+        var current = value;
+        if (current != null && !isExpired(current, ttlMillis)) return current;
+        synchronized (this) {
+            current = value;
+            if (current == null || isExpired(current, ttlMillis)) {
+                current = new TotalCountVO(counter.getAsLong(), new Date());
+                value = current;
+            }
+            return current;
+        }
+    }
+
+    public void invalidate() {
+        value = null;
+    }
+
+    private boolean isExpired(TotalCountVO count, long ttlMillis) {
+        return System.currentTimeMillis() - count.getCountedAt().getTime() >= ttlMillis;
+    }
+}
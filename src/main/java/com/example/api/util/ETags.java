@@ -0,0 +1,122 @@
+package com.example.api.util;
+
+import com.example.api.data.vo.v1.VersionedVO;
+import com.example.api.exceptions.PreconditionFailedException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+// ETags fortes derivados da coluna version: "<id>-<version>+<formato>" para um recurso
+// e um hash de (formato, página, ids, versões) para listagens, calculados sem serializar o corpo.
+// JSON, XML e YAML têm bytes diferentes, então cada representação tem a sua tag
+public final class ETags {
+
+    // Representações dos endpoints com ETag, na ordem de preferência do servidor (JSON é o padrão)
+    private static final Map<org.springframework.http.MediaType, String> REPRESENTATIONS = Map.of(
+            org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_JSON), "json",
+            org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_XML), "xml",
+            org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_YML), "yaml");
+    private static final List<org.springframework.http.MediaType> PRODUCES = List.of(
+            org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_JSON),
+            org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_XML),
+            org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_YML));
+
+    private ETags() {}
+
+    // Tag da representação negociada pela requisição atual
+    public static String of(VersionedVO vo) {
+        return of(vo, representation(currentAccept()));
+    }
+
+    public static String of(VersionedVO vo, String representation) {
+        return "\"" + vo.getKey() + "-" + vo.getVersion() + "+" + representation + "\"";
+    }
+
+    // Validador de listagem: só existe depois da consulta da página (e do COUNT, que no findAll vem do
+    // CachedCount). É intencional: o 304 economiza serialização e tráfego, não o banco; um validador
+    // mais barato exigiria um carimbo de alteração da tabela compartilhado entre as instâncias
+    public static String of(PagedModel<? extends EntityModel<? extends VersionedVO>> page) {
+        return of(page, representation(currentAccept()));
+    }
+
+    public static String of(PagedModel<? extends EntityModel<? extends VersionedVO>> page, String representation) {
+        var metadata = page.getMetadata();
+        var key = new StringBuilder(representation).append(';');
+        if (metadata != null)
+            key.append(metadata.getNumber()).append(':').append(metadata.getSize())
+                    .append(':').append(metadata.getTotalElements()).append(';');
+        for (EntityModel<? extends VersionedVO> model : page.getContent()) {
+            var vo = model.getContent();
+            if (vo != null) key.append(vo.getKey()).append('-').append(vo.getVersion()).append(',');
+        }
+        return "\"" + HexFormat.of().formatHex(sha256(key.toString()), 0, 16) + "\"";
+    }
+
+    // 200 com o ETag da representação negociada e Vary: Accept, para um cache compartilhado não
+    // revalidar um pedido JSON com o corpo XML (o 304 do If-None-Match leva os mesmos cabeçalhos)
+    public static ResponseEntity.BodyBuilder ok(VersionedVO vo) {
+        return ResponseEntity.ok().eTag(of(vo)).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    public static ResponseEntity.BodyBuilder ok(PagedModel<? extends EntityModel<? extends VersionedVO>> page) {
+        return ResponseEntity.ok().eTag(of(page)).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    // If-Match (RFC 9110): "*" ou ausente aceitam qualquer versão; senão algum elemento da lista
+    // precisa ser, por comparação forte, a tag atual de uma das representações. Tags W/ nunca casam
+    public static void checkIfMatch(String ifMatch, VersionedVO current) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.strip())) return;
+
+        for (String element : ifMatch.split(",")) {
+            var tag = element.strip();
+            for (String representation : REPRESENTATIONS.values())
+                if (tag.equals(of(current, representation))) return;
+        }
+        throw new PreconditionFailedException();
+    }
+
+    // Mesma escolha da negociação de conteúdo do Spring: Accept ordenado por qualidade e
+    // especificidade, primeiro tipo produzido compatível; JSON quando ausente ou inválido
+    static String representation(String accept) {
+        if (accept == null || accept.isBlank()) return "json";
+
+        List<org.springframework.http.MediaType> accepted;
+        try {
+            accepted = org.springframework.http.MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (var type : accepted)
+            for (var produced : PRODUCES)
+                if (type.isCompatibleWith(produced) && type.getQualityValue() > 0)
+                    return REPRESENTATIONS.get(produced);
+        return "json";
+    }
+
+    private static String currentAccept() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getHeader(HttpHeaders.ACCEPT)
+                : null;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.api.util;
+
+import com.example.api.exceptions.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor opaco para paginação por keyset: (direção, id, chave de ordenação) em Base64 URL-safe
+public class KeysetCursor {
+
+    private final Sort.Direction direction;
+    private final Long id;
+    private final String sortKey;
+
+    public KeysetCursor(Sort.Direction direction, Long id, String sortKey) {
+        this.direction = direction;
+        this.id = id;
+        this.sortKey = sortKey;
+    }
+
+    public static String encode(Sort.Direction direction, Long id, String sortKey) {
+        return new KeysetCursor(direction, id, sortKey).encode();
+    }
+
+    public String encode() {
+        String raw = (direction.isAscending() ? "a" : "d") + "|" + id + "|" + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !(parts[0].equals("a") || parts[0].equals("d")))
+                throw new InvalidCursorException();
+            var direction = parts[0].equals("a") ? Sort.Direction.ASC : Sort.Direction.DESC;
+            return new KeysetCursor(direction, Long.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid or malformed pagination cursor!", e);
+        }
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+}
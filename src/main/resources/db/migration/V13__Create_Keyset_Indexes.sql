@@ -0,0 +1,6 @@
+CREATE INDEX `idx_person_first_name_id` ON `person` (`first_name`, `id`);
+
+ALTER TABLE `books`
+	MODIFY COLUMN `title` varchar(250) NOT NULL;
+
+CREATE INDEX `idx_books_title_id` ON `books` (`title`, `id`);
@@ -0,0 +1,4 @@
+-- Stopwords desligadas antes de criar o índice: com o parser ngram, bigramas como "an" ou "de" seriam descartados
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+CREATE FULLTEXT INDEX `ft_person_first_name` ON `person` (`first_name`) WITH PARSER ngram;
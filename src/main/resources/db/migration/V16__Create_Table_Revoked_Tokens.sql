@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS `revoked_tokens` (
+  `token_id` varchar(64) NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`token_id`),
+  KEY `idx_revoked_tokens_expires_at` (`expires_at`)
+) ENGINE=InnoDB;
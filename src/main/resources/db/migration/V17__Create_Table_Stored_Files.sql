@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS `stored_files` (
+  `file_name` varchar(255) NOT NULL,
+  `sha256` char(64) NOT NULL,
+  `size` bigint NOT NULL,
+  `content_type` varchar(255) DEFAULT NULL,
+  `uploaded_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`file_name`),
+  KEY `idx_stored_files_sha256` (`sha256`)
+) ENGINE=InnoDB;
@@ -0,0 +1,54 @@
+package com.example.api.benchmark;
+
+import com.example.api.controllers.PersonController;
+import com.example.api.hateoas.LinkTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// Custo por item do self link: proxy linkTo(methodOn(...)) vs LinkTemplates com a base já resolvida.
+// Use o profiler de GC (-prof gc) para comparar a alocação por operação.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBenchmark {
+
+    private LinkTemplates links;
+    private String baseUri;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        links = LinkTemplates.of(PersonController.class);
+        baseUri = links.baseUri();
+    }
+
+    @Benchmark
+    public Link methodOnSelfLink() {
+        return linkTo(methodOn(PersonController.class).findById(++id)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link templateSelfLink() {
+        return links.selfLink(baseUri, ++id);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LinkBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.api.benchmark;
+
+import com.example.api.converter.mocks.MockBook;
+import com.example.api.converter.mocks.MockPerson;
+import com.example.api.data.vo.v1.BookVO;
+import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.mapper.custom.DozerMapper;
+import com.example.api.model.Book;
+import com.example.api.model.Person;
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Compara o mapeamento via Dozer (reflexão) com os mappers gerados usados pelo DozerMapper.
+// Executar com: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.api.benchmark.MapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Mapper dozer;
+    private Person person;
+    private PersonVO personVO;
+    private Book book;
+    private BookVO bookVO;
+
+    @Setup
+    public void setUp() {
+        dozer = DozerBeanMapperBuilder.buildDefault();
+        person = new MockPerson().mockEntity(1);
+        personVO = new MockPerson().mockVO(1);
+        book = new MockBook().mockEntity(1);
+        bookVO = new MockBook().mockVO(1);
+    }
+
+    @Benchmark
+    public PersonVO dozerPersonToVo() {
+        return dozer.map(person, PersonVO.class);
+    }
+
+    @Benchmark
+    public PersonVO generatedPersonToVo() {
+        return DozerMapper.parseObject(person, PersonVO.class);
+    }
+
+    @Benchmark
+    public Person dozerPersonToEntity() {
+        return dozer.map(personVO, Person.class);
+    }
+
+    @Benchmark
+    public Person generatedPersonToEntity() {
+        return DozerMapper.parseObject(personVO, Person.class);
+    }
+
+    @Benchmark
+    public BookVO dozerBookToVo() {
+        return dozer.map(book, BookVO.class);
+    }
+
+    @Benchmark
+    public BookVO generatedBookToVo() {
+        return DozerMapper.parseObject(book, BookVO.class);
+    }
+
+    @Benchmark
+    public Book dozerBookToEntity() {
+        return dozer.map(bookVO, Book.class);
+    }
+
+    @Benchmark
+    public Book generatedBookToEntity() {
+        return DozerMapper.parseObject(bookVO, Book.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.api.unittests.config;
+
+import com.example.api.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    @Test
+    void testByIdCachesAreBoundedAndRecordStats() {
+        var config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "byIdSpec", "maximumSize=2,expireAfterWrite=1m,recordStats");
+
+        var cacheManager = config.cacheManager();
+
+        for (String name : new String[]{CacheConfig.PERSON_BY_ID, CacheConfig.BOOK_BY_ID}) {
+            var cache = ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+
+            assertEquals(2, cache.policy().eviction().orElseThrow().getMaximum());
+            assertTrue(cache.policy().expireAfterWrite().isPresent());
+
+            cache.getIfPresent(1L);
+            assertEquals(1, cache.stats().missCount());
+        }
+    }
+
+    @Test
+    void testFileMetadataCacheHasNoExpiry() {
+        var config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "fileMetadataSpec", "maximumSize=5,recordStats");
+
+        var cache = ((CaffeineCache) config.cacheManager().getCache(CacheConfig.FILE_METADATA)).getNativeCache();
+
+        assertEquals(5, cache.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(cache.policy().expireAfterWrite().isEmpty());
+    }
+}
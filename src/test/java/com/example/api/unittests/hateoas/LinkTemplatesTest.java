@@ -0,0 +1,57 @@
+package com.example.api.unittests.hateoas;
+
+import com.example.api.controllers.BookController;
+import com.example.api.controllers.PersonController;
+import com.example.api.hateoas.LinkTemplates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplatesTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testLinksWithoutRequest() {
+        assertSameLinks();
+    }
+
+    @Test
+    void testLinksWithRequest() {
+        var request = new MockHttpServletRequest("GET", "/api/people/v1");
+        request.setServerName("api.example.com");
+        request.setServerPort(8888);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("http://api.example.com:8888/api/people/v1/1",
+                LinkTemplates.of(PersonController.class).selfLink(1L).getHref());
+        assertSameLinks();
+    }
+
+    private void assertSameLinks() {
+        var people = LinkTemplates.of(PersonController.class);
+        assertSameLink(linkTo(methodOn(PersonController.class).findById(7L)).withSelfRel(), people.selfLink(7L));
+        assertSameLink(linkTo(methodOn(PersonController.class).findAll(2, 12, "asc")).withSelfRel(),
+                people.pageLink(2, 12, "asc"));
+
+        var books = LinkTemplates.of(BookController.class);
+        assertSameLink(linkTo(methodOn(BookController.class).findById(3L)).withSelfRel(), books.selfLink(3L));
+        assertSameLink(linkTo(methodOn(BookController.class).findAll(0, 5, "asc")).withSelfRel(),
+                books.pageLink(0, 5, "asc"));
+    }
+
+    private void assertSameLink(Link expected, Link actual) {
+        assertEquals(expected.getHref(), actual.getHref());
+        assertEquals(expected.getRel(), actual.getRel());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.api.unittests.mapper;
+
+import com.example.api.converter.mocks.MockBook;
+import com.example.api.converter.mocks.MockPerson;
+import com.example.api.data.vo.v1.BookVO;
+import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.mapper.custom.DozerMapper;
+import com.example.api.model.Book;
+import com.example.api.model.Person;
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DozerMapperTest {
+
+    MockPerson inputPerson;
+    MockBook inputBook;
+    Mapper dozer;
+
+    @BeforeEach
+    void setUp() {
+        inputPerson = new MockPerson();
+        inputBook = new MockBook();
+        dozer = DozerBeanMapperBuilder.buildDefault();
+    }
+
+    @Test
+    void parsePersonEntityToVOMatchesDozer() {
+        Person entity = inputPerson.mockEntity(1);
+        entity.setEnabled(true);
+
+        PersonVO output = DozerMapper.parseObject(entity, PersonVO.class);
+
+        assertEquals(dozer.map(entity, PersonVO.class), output);
+        assertEquals(1L, output.getKey());
+        assertEquals("First Name Test1", output.getFirstName());
+        assertEquals("Last Name Test1", output.getLastName());
+        assertEquals("Addres Test1", output.getAddress());
+        assertEquals("Female", output.getGender());
+        assertTrue(output.getEnabled());
+    }
+
+    @Test
+    void parsePersonVOToEntityMatchesDozer() {
+        PersonVO vo = inputPerson.mockVO(2);
+
+        Person output = DozerMapper.parseObject(vo, Person.class);
+
+        assertEquals(dozer.map(vo, Person.class), output);
+        assertEquals(2L, output.getId());
+        assertEquals("Male", output.getGender());
+    }
+
+    @Test
+    void parseBookEntityToVOMatchesDozer() {
+        Book entity = inputBook.mockEntity(3);
+
+        BookVO output = DozerMapper.parseObject(entity, BookVO.class);
+
+        assertEquals(dozer.map(entity, BookVO.class), output);
+        assertEquals(3L, output.getKey());
+        assertEquals(entity.getLaunchDate(), output.getLaunchDate());
+    }
+
+    @Test
+    void parseBookVOToEntityMatchesDozer() {
+        BookVO vo = inputBook.mockVO(4);
+
+        Book output = DozerMapper.parseObject(vo, Book.class);
+
+        assertEquals(dozer.map(vo, Book.class), output);
+        assertEquals(4L, output.getId());
+    }
+
+    @Test
+    void parseListObjects() {
+        List<PersonVO> output = DozerMapper.parseListObjects(inputPerson.mockEntityList(), PersonVO.class);
+
+        assertEquals(14, output.size());
+        assertEquals("First Name Test7", output.get(7).getFirstName());
+    }
+}
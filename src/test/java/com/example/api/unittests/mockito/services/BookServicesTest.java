@@ -12,6 +12,9 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -32,9 +35,14 @@ class BookServicesTest {
     @Mock
     BookRepository repository;
 
+    @Spy
+    CacheManager cacheManager = new ConcurrentMapCacheManager();
+
     @BeforeEach
     void setUpMocks() throws Exception {
         input = new MockBook();
+        // PER_CLASS: um cache novo por teste, sem herdar entradas do anterior
+        cacheManager = new ConcurrentMapCacheManager();
         MockitoAnnotations.openMocks(this);
     }
 
@@ -59,14 +67,17 @@ class BookServicesTest {
 
     @Test
     void testCreate() {
+        // o id do payload é ignorado: o save recebe uma entidade nova
         Book entity = input.mockEntity(1);
-        entity.setId(1L);
+        entity.setId(null);
 
-        Book persisted = entity;
+        Book persisted = input.mockEntity(1);
         persisted.setId(1L);
 
         BookVO vo = input.mockVO(1);
         vo.setKey(1L);
+        vo.setVersion(3L);
+        vo.setLaunchDate(entity.getLaunchDate());
 
         when(repository.save(entity)).thenReturn(persisted);
 
@@ -2,24 +2,37 @@ package com.example.api.unittests.mockito.services;
 
 import com.example.api.converter.mocks.MockPerson;
 import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.exceptions.InvalidCursorException;
+import com.example.api.exceptions.PreconditionFailedException;
 import com.example.api.exceptions.RequiredObjectIsNullException;
 import com.example.api.model.Person;
 import com.example.api.repositories.PersonRepository;
 import com.example.api.services.PersonServices;
+import com.example.api.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -33,12 +46,33 @@ class PersonServicesTest {
     @Mock
     PersonRepository repository;
 
+    @Spy
+    CacheManager cacheManager = new ConcurrentMapCacheManager();
+
     @BeforeEach
     void setUpMocks() throws Exception {
         input = new MockPerson();
+        // PER_CLASS: um cache novo por teste, sem herdar entradas do anterior
+        cacheManager = new ConcurrentMapCacheManager();
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    void testFindByIdCachesDataButNotTheReturnedInstance() {
+        Person entity = input.mockEntity(1);
+        entity.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+
+        var first = service.findById(1L);
+        first.setFirstName("Changed by caller");
+        var second = service.findById(1L);
+
+        verify(repository, times(1)).findById(1L);
+        assertNotSame(first, second);
+        assertEquals("First Name Test1", second.getFirstName());
+        assertEquals(1, second.getLinks().toList().size());
+    }
+
     @Test
     void testFindById() {
         Person entity = input.mockEntity(1);
@@ -60,14 +94,16 @@ class PersonServicesTest {
 
     @Test
     void testCreate() {
+        // o id do payload é ignorado: o save recebe uma entidade nova
         Person entity = input.mockEntity(1);
-        entity.setId(1L);
+        entity.setId(null);
 
-        Person persisted = entity;
+        Person persisted = input.mockEntity(1);
         persisted.setId(1L);
 
         PersonVO vo = input.mockVO(1);
         vo.setKey(1L);
+        vo.setVersion(3L);
 
         when(repository.save(entity)).thenReturn(persisted);
 
@@ -124,6 +160,22 @@ class PersonServicesTest {
         assertEquals("Female", result.getGender());
     }
 
+    @Test
+    void testUpdateWithStaleVersion() {
+        Person entity = input.mockEntity(1);
+        entity.setId(1L);
+        entity.setVersion(3L);
+
+        PersonVO vo = input.mockVO(1);
+        vo.setKey(1L);
+        vo.setVersion(2L);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+
+        assertThrows(PreconditionFailedException.class, () -> service.update(vo));
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void testUpdateWithNullPerson() {
         Exception exception = assertThrows(RequiredObjectIsNullException.class, () -> {
@@ -136,6 +188,92 @@ class PersonServicesTest {
         assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    @Test
+    void testFindAllByCursor() {
+        List<Person> list = input.mockEntityList().subList(0, 4);
+
+        when(repository.findFirstOrderByFirstNameAsc(Limit.of(4))).thenReturn(list);
+
+        var firstPage = service.findAllByCursor(null, 3, Sort.Direction.ASC);
+
+        assertEquals(3, firstPage.getContent().size());
+        assertNotNull(firstPage.getNextCursor());
+        assertTrue(firstPage.getLink("next").isPresent());
+        assertTrue(firstPage.getContent().get(0).toString().contains("links: [</api/people/v1/0>;rel=\"self\"]"));
+
+        var position = KeysetCursor.decode(firstPage.getNextCursor());
+        assertEquals(2L, position.getId());
+        assertEquals("First Name Test2", position.getSortKey());
+        assertEquals(Sort.Direction.ASC, position.getDirection());
+
+        when(repository.findAfterOrderByFirstNameAsc("First Name Test2", 2L, Limit.of(4)))
+                .thenReturn(input.mockEntityList().subList(3, 4));
+
+        var lastPage = service.findAllByCursor(firstPage.getNextCursor(), 3, Sort.Direction.ASC);
+
+        assertEquals(1, lastPage.getContent().size());
+        assertNull(lastPage.getNextCursor());
+        assertTrue(lastPage.getLink("next").isEmpty());
+    }
+
+    @Test
+    void testFindAllByInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> service.findAllByCursor("not-a-cursor", 3, Sort.Direction.ASC));
+    }
+
+    @Test
+    void testFindAllSlice() {
+        Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "firstName"));
+
+        when(repository.findSliceBy(pageable))
+                .thenReturn(new SliceImpl<>(input.mockEntityList().subList(0, 3), pageable, true));
+
+        var result = service.findAllSlice(pageable);
+
+        assertEquals(3, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals("/api/people/v1/slice?page=1&size=3&direction=asc", result.getLink("next").get().getHref());
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testFindPersonByNameUsesNgramIndex() {
+        Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "firstName"));
+        Pageable columnPageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "first_name"));
+
+        when(repository.searchPersonsByName("\"ayr\"", columnPageable))
+                .thenReturn(new PageImpl<>(input.mockEntityList().subList(0, 3), columnPageable, 7));
+
+        var result = service.findPersonByNameLean("ayr", pageable);
+
+        assertEquals(3, result.getContent().size());
+        assertEquals(7, result.getPage().getTotalElements());
+        verify(repository, never()).findPersonsByName(anyString(), any());
+    }
+
+    @Test
+    void testFindPersonByNameShortTermFallsBackToLike() {
+        Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "firstName"));
+
+        when(repository.findSliceOfPersonsByName("a", pageable))
+                .thenReturn(new SliceImpl<>(input.mockEntityList().subList(0, 3), pageable, false));
+
+        var result = service.findPersonByNameSlice("a", pageable);
+
+        assertEquals(3, result.getContent().size());
+        verify(repository, never()).searchSliceOfPersonsByName(anyString(), any());
+    }
+
+    @Test
+    void testCountIsCached() {
+        when(repository.count()).thenReturn(14L);
+
+        assertEquals(14L, service.count().getCount());
+        assertEquals(14L, service.count().getCount());
+
+        verify(repository, times(1)).count();
+    }
+
     @Test
     void testDelete() {
         Person entity = input.mockEntity(1);
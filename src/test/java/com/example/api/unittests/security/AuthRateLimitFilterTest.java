@@ -0,0 +1,164 @@
+package com.example.api.unittests.security;
+
+import com.example.api.security.ratelimit.AuthRateLimitFilter;
+import com.example.api.security.ratelimit.TokenBucketLimiter;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimitFilterTest {
+
+    AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AuthRateLimitFilter(
+                new TokenBucketLimiter(10, 60, 1000),
+                new TokenBucketLimiter(5, 1, 1000),
+                new TokenBucketLimiter(2, 1, 1000));
+    }
+
+    private MockHttpServletRequest signin(String username) {
+        var request = new MockHttpServletRequest("POST", "/auth/signin");
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"admin123\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void testBucketAllowsBurstThenReportsWait() {
+        var limiter = new TokenBucketLimiter(3, 60, 1000);
+
+        for (int i = 0; i < 3; i++) assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        long wait = limiter.tryAcquire("10.0.0.1");
+
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "wait: " + wait);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void testSigninBodyStillReachesController() throws Exception {
+        var chain = new MockFilterChain();
+
+        filter.doFilter(signin("leandro"), new MockHttpServletResponse(), chain);
+
+        var body = chain.getRequest().getInputStream().readAllBytes();
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"username\":\"leandro\""));
+    }
+
+    @Test
+    void testRejectsPerUsernameWithRetryAfter() throws Exception {
+        filter.doFilter(signin("leandro"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(signin("Leandro"), new MockHttpServletResponse(), new MockFilterChain());
+
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        filter.doFilter(signin("leandro"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+
+        var other = new MockHttpServletResponse();
+        filter.doFilter(signin("flavio"), other, new MockFilterChain());
+        assertEquals(200, other.getStatus());
+    }
+
+    @Test
+    void testRejectsPerUsernameInXmlAndYaml() throws Exception {
+        for (var contentType : new String[] { "application/xml", "application/x-yaml" }) {
+            var body = contentType.endsWith("xml")
+                    ? "<AccountCredentialsVO><username>flavio</username><password>x</password></AccountCredentialsVO>"
+                    : "username: flavio\npassword: x\n";
+            filter = new AuthRateLimitFilter(
+                    new TokenBucketLimiter(10, 60, 1000),
+                    new TokenBucketLimiter(5, 1, 1000),
+                    new TokenBucketLimiter(2, 1, 1000));
+
+            var response = new MockHttpServletResponse();
+            for (int i = 0; i < 3; i++) {
+                var request = new MockHttpServletRequest("POST", "/auth/signin");
+                request.setContentType(contentType);
+                request.setContent(body.getBytes(StandardCharsets.UTF_8));
+                response = new MockHttpServletResponse();
+                filter.doFilter(request, response, new MockFilterChain());
+            }
+            assertEquals(429, response.getStatus(), contentType);
+        }
+    }
+
+    @Test
+    void testUsernameLimitDoesNotLockOutOtherAddresses() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            var request = signin("leandro");
+            request.setRemoteAddr("10.0.0.66");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        var response = new MockHttpServletResponse();
+        var request = signin("leandro");
+        request.setRemoteAddr("10.0.0.7");
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testUsernameIsLimitedAcrossAddresses() throws Exception {
+        var response = new MockHttpServletResponse();
+        for (int i = 0; i < 6; i++) {
+            var request = signin("leandro");
+            request.setRemoteAddr("10.0.1." + i);
+            response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+        }
+
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void testCachedBodySupportsReadListener() throws Exception {
+        var chain = new MockFilterChain();
+        filter.doFilter(signin("leandro"), new MockHttpServletResponse(), chain);
+
+        var input = chain.getRequest().getInputStream();
+        var events = new StringBuilder();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.append("data:").append(input.readAllBytes().length > 0).append(';');
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.append("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.append("error");
+            }
+        });
+
+        assertEquals("data:true;done", events.toString());
+    }
+
+    @Test
+    void testOtherRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            var response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/people/v1"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+}
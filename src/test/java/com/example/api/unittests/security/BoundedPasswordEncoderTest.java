@@ -0,0 +1,58 @@
+package com.example.api.unittests.security;
+
+import com.example.api.exceptions.ServiceOverloadedException;
+import com.example.api.security.password.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testDelegatesAndRecordsLatency() {
+        var delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("admin123", "hash")).thenReturn(true);
+
+        try (var encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000, 1, registry)) {
+            assertTrue(encoder.matches("admin123", "hash"));
+        }
+
+        assertEquals(1, registry.get("auth.password.hash").timer().count());
+    }
+
+    @Test
+    void testRejectsWhenSaturated() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        try (var encoder = new BoundedPasswordEncoder(delegate, 1, 1, 5000, 3, registry)) {
+            var busy = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            var queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+            while (registry.get("auth.password.queue.depth").gauge().value() < 1) Thread.onSpinWait();
+
+            var exception = assertThrows(ServiceOverloadedException.class, () -> encoder.matches("c", "hash"));
+            assertEquals(3, exception.getRetryAfterSeconds());
+            assertEquals(1, registry.get("auth.password.rejected").counter().count());
+
+            release.countDown();
+            assertTrue(busy.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.api.unittests.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.example.api.security.jwt.JwtTokenProvider;
+import com.example.api.security.jwt.TokenRevocationStore;
+import com.example.api.services.UserServices;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenProviderTest {
+
+    @InjectMocks
+    private JwtTokenProvider provider;
+
+    @Mock
+    UserServices userServices;
+
+    @Mock
+    TokenRevocationStore revocationStore;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.invokeMethod(provider, "init");
+    }
+
+    private String token(String username, List<String> roles, long validityMillis) {
+        var algorithm = (Algorithm) ReflectionTestUtils.getField(provider, "algorithm");
+        var now = new Date();
+        return JWT.create()
+                .withClaim("roles", roles)
+                .withIssuedAt(now)
+                .withExpiresAt(new Date(now.getTime() + validityMillis))
+                .withSubject(username)
+                .sign(algorithm);
+    }
+
+    @Test
+    void testAuthenticationFromClaimsSkipsUserLookup() {
+        when(userServices.isActive("leandro")).thenReturn(true);
+
+        var auth = provider.getAuthentication(token("leandro", List.of("ADMIN", "MANAGER"), 60000));
+
+        assertEquals("leandro", auth.getName());
+        assertEquals(List.of("ADMIN", "MANAGER"),
+                auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(userServices, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testInactiveUserIsNotAuthenticated() {
+        when(userServices.isActive("flavio")).thenReturn(false);
+
+        assertNull(provider.getAuthentication(token("flavio", List.of("COMMON_USER"), 60000)));
+    }
+
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        var verifier = spy((JWTVerifier) ReflectionTestUtils.getField(provider, "verifier"));
+        ReflectionTestUtils.setField(provider, "verifier", verifier);
+        when(userServices.isActive("leandro")).thenReturn(true);
+        var token = token("leandro", List.of("ADMIN"), 60000);
+
+        assertNotNull(provider.authenticate(token));
+        assertNotNull(provider.authenticate(token));
+
+        verify(verifier, times(1)).verify(token);
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        var token = token("leandro", List.of("ADMIN"), -1000);
+
+        assertThrows(TokenExpiredException.class, () -> provider.authenticate(token));
+    }
+
+    @Test
+    void testRevokedTokenIsNotAuthenticated() {
+        var token = token("leandro", List.of("ADMIN"), 60000);
+        provider.revoke("Bearer " + token);
+
+        var tokenId = ArgumentCaptor.forClass(String.class);
+        verify(revocationStore).revoke(tokenId.capture(), any(Date.class));
+        when(revocationStore.isRevoked(tokenId.getValue())).thenReturn(true);
+
+        assertNull(provider.authenticate(token));
+        verify(userServices, never()).isActive(anyString());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.api.unittests.security;
+
+import com.example.api.model.RevokedToken;
+import com.example.api.repositories.RevokedTokenRepository;
+import com.example.api.security.jwt.TokenRevocationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+
+    @InjectMocks
+    private TokenRevocationStore store;
+
+    @Mock
+    RevokedTokenRepository repository;
+
+    // Tabela revoked_tokens simulada
+    private final Map<String, Date> table = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            RevokedToken token = invocation.getArgument(0);
+            table.put(token.getTokenId(), token.getExpiresAt());
+            return token;
+        });
+        lenient().when(repository.existsById(anyString()))
+                .thenAnswer(invocation -> table.containsKey(invocation.<String>getArgument(0)));
+        lenient().when(repository.findNotExpiredIds(any(Date.class))).thenAnswer(invocation -> {
+            Date now = invocation.getArgument(0);
+            return table.entrySet().stream().filter(e -> e.getValue().after(now)).map(Map.Entry::getKey).toList();
+        });
+        lenient().when(repository.deleteExpired(any(Date.class))).thenAnswer(invocation -> {
+            Date now = invocation.getArgument(0);
+            int before = table.size();
+            table.values().removeIf(expiresAt -> !expiresAt.after(now));
+            return before - table.size();
+        });
+        ReflectionTestUtils.invokeMethod(store, "init");
+    }
+
+    @Test
+    void testNotRevokedTokenSkipsTheDatabase() {
+        assertFalse(store.isRevoked("never-revoked"));
+
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void testRevokedTokenIsConfirmedByTheDatabase() {
+        store.revoke("jti-1", new Date(System.currentTimeMillis() + 60000));
+
+        assertTrue(store.isRevoked("jti-1"));
+        verify(repository).existsById("jti-1");
+    }
+
+    @Test
+    void testRevocationsSurviveRestart() {
+        table.put("jti-1", new Date(System.currentTimeMillis() + 60000));
+
+        ReflectionTestUtils.invokeMethod(store, "init");
+
+        assertTrue(store.isRevoked("jti-1"));
+    }
+
+    @Test
+    void testPruneDropsExpiredTokensAndKeepsTheRest() {
+        store.revoke("expired", new Date(System.currentTimeMillis() - 1000));
+        store.revoke("valid", new Date(System.currentTimeMillis() + 60000));
+
+        store.prune();
+
+        assertFalse(table.containsKey("expired"));
+        assertFalse(store.isRevoked("expired"));
+        assertTrue(store.isRevoked("valid"));
+        verify(repository, times(2)).findNotExpiredIds(any(Date.class));
+    }
+
+    @Test
+    void testPruneWithoutExpiredTokensKeepsTheFilter() {
+        store.revoke("valid", new Date(System.currentTimeMillis() + 60000));
+
+        store.prune();
+
+        assertTrue(store.isRevoked("valid"));
+        verify(repository, times(1)).findNotExpiredIds(any(Date.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.api.unittests.serialization;
+
+import com.example.api.converter.mocks.MockPerson;
+import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.exceptions.UnsupportedExportFormatException;
+import com.example.api.serialization.export.ExportFormat;
+import com.example.api.serialization.export.ExportWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    private static final String[] COLUMNS = {"id", "firstName", "address"};
+
+    MockPerson input;
+    ByteArrayOutputStream output;
+
+    @BeforeEach
+    void setUp() {
+        input = new MockPerson();
+        output = new ByteArrayOutputStream();
+    }
+
+    private ExportWriter<PersonVO> writer(ExportFormat format) {
+        return new ExportWriter<>(format, output, COLUMNS,
+                vo -> new Object[]{vo.getKey(), vo.getFirstName(), vo.getAddress()});
+    }
+
+    @Test
+    void testNdjsonWritesOneLinePerRecordWithoutLinks() throws Exception {
+        var writer = writer(ExportFormat.NDJSON);
+        for (int i = 0; i < 2; i++) {
+            var vo = input.mockVO(i);
+            vo.add(Link.of("/api/person/v1/" + i));
+            writer.write(vo);
+        }
+        writer.flush();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"firstName\":\"First Name Test0\""));
+        assertFalse(lines[0].contains("links"));
+    }
+
+    @Test
+    void testCsvWritesHeaderAndEscapesValues() throws Exception {
+        var writer = writer(ExportFormat.CSV);
+        var vo = input.mockVO(1);
+        vo.setAddress("Rua \"A\", 10");
+        writer.write(vo);
+        writer.flush();
+
+        assertEquals("id,firstName,address\r\n1,First Name Test1,\"Rua \"\"A\"\", 10\"\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCsvWritesHeaderWhenEmpty() throws Exception {
+        writer(ExportFormat.CSV).flush();
+        assertEquals("id,firstName,address\r\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testUnsupportedFormat() {
+        assertEquals(ExportFormat.CSV, ExportFormat.of("CSV"));
+        assertThrows(UnsupportedExportFormatException.class, () -> ExportFormat.of("xml"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.api.unittests.serialization;
+
+import com.example.api.converter.mocks.MockPerson;
+import com.example.api.data.vo.v1.LeanPageVO;
+import com.example.api.data.vo.v1.PersonVO;
+import com.example.api.serialization.converter.LeanJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeanJackson2HttpMessageConverterTest {
+
+    private static final MediaType LEAN =
+            MediaType.parseMediaType(com.example.api.util.MediaType.APPLICATION_JSON_LEAN);
+
+    LeanJackson2HttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new LeanJackson2HttpMessageConverter(new ObjectMapper());
+    }
+
+    @Test
+    void testOnlyWritesLeanPages() {
+        assertTrue(converter.canWrite(LeanPageVO.class, LEAN));
+        assertTrue(converter.canWrite(LeanPageVO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(PersonVO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(LeanPageVO.class, LEAN));
+    }
+
+    @Test
+    void testWriteSkipsLinks() throws Exception {
+        var mock = new MockPerson();
+        var vo = mock.mockVO(1);
+        vo.add(Link.of("/api/people/v1/1"));
+        var page = new PageImpl<>(mock.mockEntityList().subList(0, 2), PageRequest.of(0, 2), 14);
+        var lean = LeanPageVO.of(page, p -> p.getId() == 1L ? vo : mock.mockVO(p.getId().intValue()));
+
+        var output = new MockHttpOutputMessage();
+        converter.write(lean, LEAN, output);
+        var json = output.getBodyAsString(StandardCharsets.UTF_8);
+
+        assertFalse(json.contains("links"));
+        assertTrue(json.contains("\"firstName\":\"First Name Test1\""));
+        assertTrue(json.contains("\"page\":{\"size\":2,\"totalElements\":14,\"totalPages\":7,\"number\":0}"));
+    }
+}
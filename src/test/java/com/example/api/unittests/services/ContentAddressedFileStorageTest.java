@@ -0,0 +1,126 @@
+package com.example.api.unittests.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.model.StoredFile;
+import com.example.api.repositories.StoredFileRepository;
+import com.example.api.services.FileCacheServices;
+import com.example.api.services.FileMetadataServices;
+import com.example.api.services.FileStorageServices;
+import com.example.api.services.FileVariantServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ContentAddressedFileStorageTest {
+
+    @TempDir
+    Path dir;
+
+    FileStorageServices service;
+
+    // Índice em memória no lugar da tabela stored_files
+    Map<String, StoredFile> index = new ConcurrentHashMap<>();
+
+    StoredFileRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StoredFileRepository.class);
+        when(repository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(index.get(invocation.<String>getArgument(0))));
+        when(repository.save(any(StoredFile.class))).thenAnswer(invocation -> {
+            StoredFile stored = invocation.getArgument(0);
+            index.put(stored.getFileName(), stored);
+            return stored;
+        });
+        when(repository.countBySha256(anyString())).thenAnswer(invocation -> references(invocation.getArgument(0)));
+
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setStorageMode(FileStorageConfig.StorageMode.CONTENT_ADDRESSED);
+        var hotFiles = new FileCacheServices(config, new SimpleMeterRegistry());
+        service = new FileStorageServices(config,
+                new FileMetadataServices(config, repository, new ConcurrentMapCacheManager()),
+                new FileVariantServices(config, hotFiles), hotFiles);
+    }
+
+    private String store(String filename, String content) {
+        return service.storeStream(filename, "text/plain",
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))).getChecksum();
+    }
+
+    private long references(String sha256) {
+        return index.values().stream().filter(stored -> stored.getSha256().equals(sha256)).count();
+    }
+
+    private long blobCount() throws Exception {
+        try (var files = Files.walk(dir.resolve(".blobs"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void testIdenticalContentIsStoredOnce() throws Exception {
+        var first = store("a.txt", "same bytes");
+        var second = store("b.txt", "same bytes");
+
+        assertEquals(first, second);
+        assertEquals(1, blobCount());
+        assertEquals(service.loadFile("a.txt"), service.loadFile("b.txt"));
+        assertEquals(dir.resolve(".blobs").resolve(first.substring(0, 2)).resolve(first), service.loadFile("a.txt"));
+    }
+
+    @Test
+    void testOverwriteReleasesUnreferencedBlob() throws Exception {
+        store("a.txt", "v1");
+        store("a.txt", "v2");
+
+        assertEquals(1, blobCount());
+        assertEquals("v2", Files.readString(service.loadFile("a.txt")));
+    }
+
+    @Test
+    void testSharedBlobSurvivesOverwrite() throws Exception {
+        store("a.txt", "shared");
+        store("b.txt", "shared");
+        store("a.txt", "changed");
+
+        assertEquals(2, blobCount());
+        assertEquals("shared", Files.readString(service.loadFile("b.txt")));
+    }
+
+    @Test
+    void testDedupDoesNotReuseABlobBeingCollected() throws Exception {
+        store("a.txt", "shared");
+        var collecting = new CountDownLatch(1);
+        when(repository.countBySha256(anyString())).thenAnswer(invocation -> {
+            long count = references(invocation.getArgument(0));
+            collecting.countDown();
+            Thread.sleep(200); // janela em que o upload concorrente do mesmo conteúdo tenta reaproveitar o blob
+            return count;
+        });
+
+        var overwrite = CompletableFuture.runAsync(() -> store("a.txt", "changed"));
+        collecting.await();
+        store("b.txt", "shared");
+        overwrite.join();
+
+        assertEquals("shared", Files.readString(service.loadFile("b.txt")));
+        assertEquals(2, blobCount());
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.api.unittests.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.model.StoredFile;
+import com.example.api.services.FileCacheServices;
+import com.example.api.services.FileDownloadServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadServicesTest {
+
+    @TempDir
+    Path dir;
+
+    Path file;
+
+    // Cache de arquivos quentes desligado (tamanho máximo 0): estes testes cobrem o envio a partir do disco
+    FileDownloadServices service = new FileDownloadServices(new FileStorageConfig(), hotFiles(0));
+
+    private static FileCacheServices hotFiles(long maxFileSize) {
+        var config = new FileStorageConfig();
+        config.setHotCacheMaxFileSize(maxFileSize);
+        config.setHotCacheAdmissionHits(1);
+        return new FileCacheServices(config, new SimpleMeterRegistry());
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(dir.resolve("report.txt"), "0123456789abcdefghij");
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        service.send(file, "report.txt", request, response);
+        return response;
+    }
+
+    @Test
+    void testFullDownload() throws Exception {
+        var response = send(new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("text/plain", response.getContentType());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("0123456789abcdefghij", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testPartialDownload() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.addHeader("Range", "bytes=5-9");
+
+        var response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+        assertEquals(5, response.getContentLengthLong());
+        assertEquals("56789", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testStaleIfRangeReturnsWholeFile() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.addHeader("Range", "bytes=5-9");
+        request.addHeader("If-Range", "\"stale\"");
+
+        var response = send(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(20, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testUnsatisfiableRange() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.addHeader("Range", "bytes=50-");
+
+        var response = send(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testUsesSendfileWhenSupported() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=-4");
+
+        var response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(16L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testServesGzipVariantWhenAccepted() throws Exception {
+        var gzip = Files.write(dir.resolve("report.txt.gz"), new byte[] {31, -117, 8, 0});
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+
+        var response = new MockHttpServletResponse();
+        service.send(file, gzip, "report.txt", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertTrue(response.getHeader("ETag").endsWith("-gz\""));
+        assertEquals(4, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testRangeIgnoresGzipVariant() throws Exception {
+        var gzip = Files.write(dir.resolve("report.txt.gz"), new byte[] {31, -117, 8, 0});
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("Range", "bytes=0-4");
+
+        var response = new MockHttpServletResponse();
+        service.send(file, gzip, "report.txt", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("01234", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHeadIsAnsweredFromTheIndex() throws Exception {
+        var metadata = new StoredFile("report.txt", "ab".repeat(32), 20L, "text/plain", new Date(1_700_000_000_000L));
+        var request = new MockHttpServletRequest("HEAD", "/api/file/v1/downloadFile/report.txt");
+
+        var response = new MockHttpServletResponse();
+        service.send(null, null, "report.txt", metadata, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(20, response.getContentLengthLong());
+        assertEquals("\"" + "ab".repeat(32) + "\"", response.getHeader("ETag"));
+        assertEquals(1_700_000_000_000L, response.getDateHeader("Last-Modified"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testHeadSelectsTheSameRepresentationAsGet() throws Exception {
+        var gzip = Files.write(dir.resolve("report.txt.gz"), new byte[] {31, -117, 8, 0});
+        var metadata = new StoredFile("report.txt", "ab".repeat(32), 20L, "text/plain", new Date(1_700_000_000_000L));
+
+        var responses = new MockHttpServletResponse[2];
+        var methods = new String[] { "GET", "HEAD" };
+        for (int i = 0; i < methods.length; i++) {
+            var request = new MockHttpServletRequest(methods[i], "/api/file/v1/downloadFile/report.txt");
+            request.addHeader("Accept-Encoding", "gzip");
+            responses[i] = new MockHttpServletResponse();
+            service.send(file, gzip, "report.txt", metadata, request, responses[i]);
+        }
+
+        for (var header : List.of("Vary", "Content-Encoding", "ETag", "Content-Length", "Content-Type"))
+            assertEquals(responses[0].getHeader(header), responses[1].getHeader(header), header);
+        assertEquals("gzip", responses[1].getHeader("Content-Encoding"));
+        assertEquals(0, responses[1].getContentAsByteArray().length);
+    }
+
+    @Test
+    void testHotFilesAreServedFromMemoryUntilInvalidated() throws Exception {
+        var hotFiles = hotFiles(1024);
+        var cached = new FileDownloadServices(new FileStorageConfig(), hotFiles);
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        cached.send(file, "report.txt", request, new MockHttpServletResponse());
+        Files.writeString(file, "ABCDEFGHIJ0123456789");
+        var stale = new MockHttpServletResponse();
+        cached.send(file, "report.txt", request, stale);
+
+        // servido da memória, sem sendfile, e ainda o conteúdo anterior: só o invalidate o troca
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals("0123456789abcdefghij", stale.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(0.5, hotFiles.hitRatio());
+
+        hotFiles.invalidate(file);
+        var fresh = new MockHttpServletResponse();
+        cached.send(file, "report.txt", request, fresh);
+        assertEquals("ABCDEFGHIJ0123456789", fresh.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFileIsCachedOnlyAfterRepeatedDownloads() throws Exception {
+        var config = new FileStorageConfig();
+        config.setHotCacheAdmissionHits(3);
+        var hotFiles = new FileCacheServices(config, new SimpleMeterRegistry());
+
+        assertNull(hotFiles.get(file, Files.size(file)));
+        assertNull(hotFiles.get(file, Files.size(file)));
+        var buffer = hotFiles.get(file, Files.size(file));
+
+        assertNotNull(buffer);
+        assertTrue(buffer.isDirect());
+        assertNotNull(hotFiles.get(file, Files.size(file)));
+        assertEquals(0.25, hotFiles.hitRatio());
+    }
+
+    @Test
+    void testRangeIsSlicedFromCachedBuffer() throws Exception {
+        var cached = new FileDownloadServices(new FileStorageConfig(), hotFiles(1024));
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.addHeader("Range", "bytes=-4");
+
+        cached.send(file, "report.txt", new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+        var response = new MockHttpServletResponse();
+        cached.send(file, "report.txt", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("ghij", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testZipStoresCompressedFormatsAndDeflatesTheRest() throws Exception {
+        var photo = Files.write(dir.resolve("photo.jpg"), new byte[] {(byte) 0xFF, (byte) 0xD8, 1, 2, 3});
+        var output = new ByteArrayOutputStream();
+
+        service.writeZip(new LinkedHashMap<>(Map.of("report.txt", file, "photo.jpg", photo)), output);
+
+        var methods = new HashMap<String, Integer>();
+        var contents = new HashMap<String, byte[]>();
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                methods.put(entry.getName(), entry.getMethod());
+                contents.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+
+        assertEquals(ZipEntry.DEFLATED, methods.get("report.txt"));
+        assertEquals(ZipEntry.STORED, methods.get("photo.jpg"));
+        assertEquals("0123456789abcdefghij", new String(contents.get("report.txt"), StandardCharsets.UTF_8));
+        assertArrayEquals(Files.readAllBytes(photo), contents.get("photo.jpg"));
+    }
+
+    // Saída que só aceita um write por vez, como um socket lento: o teste faz o papel do container
+    static class SlowClientOutputStream extends ServletOutputStream {
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        WriteListener listener;
+        boolean ready;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            received.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            received.write(b, off, len);
+            ready = false;
+        }
+    }
+
+    @Test
+    void testLargeDownloadIsWrittenWithoutBlockingTheThread() throws Exception {
+        var config = new FileStorageConfig();
+        config.setAsyncDownloadThreshold(10);
+        var async = new FileDownloadServices(config, hotFiles(0));
+        var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/report.txt");
+        request.setAsyncSupported(true);
+        var output = new SlowClientOutputStream();
+        var response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return output;
+            }
+        };
+
+        async.send(file, "report.txt", request, response);
+
+        // a thread da requisição já voltou: nada foi escrito ainda
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, output.received.size());
+
+        int callbacks = 0;
+        while (request.isAsyncStarted() && callbacks++ < 100) {
+            output.ready = true;
+            output.listener.onWritePossible();
+        }
+
+        assertFalse(request.isAsyncStarted());
+        assertEquals("0123456789abcdefghij", output.received.toString(StandardCharsets.UTF_8));
+    }
+}
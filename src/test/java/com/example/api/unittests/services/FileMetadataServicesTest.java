@@ -0,0 +1,73 @@
+package com.example.api.unittests.services;
+
+import com.example.api.config.CacheConfig;
+import com.example.api.config.FileStorageConfig;
+import com.example.api.model.StoredFile;
+import com.example.api.repositories.StoredFileRepository;
+import com.example.api.services.FileMetadataServices;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class FileMetadataServicesTest {
+
+    private static StoredFile entry(int i) {
+        return new StoredFile("file" + i + ".txt", "%064d".formatted(i), 10L, "text/plain", new Date());
+    }
+
+    @Test
+    void testWarmUpLoadsMostRecentEntriesUpToTheLimit() {
+        var repository = mock(StoredFileRepository.class);
+        when(repository.findAllByOrderByUploadedAtDesc(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            List<StoredFile> content = IntStream.range(0, page.getPageSize())
+                    .mapToObj(i -> entry((int) page.getOffset() + i)).toList();
+            return new SliceImpl<>(content, page, true);
+        });
+
+        var config = new FileStorageConfig();
+        config.setMetadataWarmupSize(2500);
+        var cacheManager = new ConcurrentMapCacheManager(CacheConfig.FILE_METADATA);
+        var service = new FileMetadataServices(config, repository, cacheManager);
+
+        assertEquals(2500, service.warmUp());
+
+        var cache = cacheManager.getCache(CacheConfig.FILE_METADATA);
+        assertNotNull(cache.get("file0.txt"));
+        assertNotNull(cache.get("file2499.txt"));
+        assertNull(cache.get("file2500.txt"));
+        verify(repository, times(3)).findAllByOrderByUploadedAtDesc(any(Pageable.class));
+        verify(repository, never()).findAllByOrderByUploadedAtDesc(PageRequest.of(3, 1000));
+    }
+
+    @Test
+    void testMissesAreCachedUntilTheNameIsSaved() {
+        var repository = mock(StoredFileRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any(StoredFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        var service = new FileMetadataServices(new FileStorageConfig(), repository, new ConcurrentMapCacheManager());
+
+        assertNull(service.find("missing.txt"));
+        assertNull(service.find("missing.txt"));
+        verify(repository, times(1)).findById("missing.txt");
+
+        service.save(entry(1));
+        var stored = new StoredFile("missing.txt", "%064d".formatted(2), 10L, "text/plain", new Date());
+        service.save(stored);
+
+        assertEquals(stored, service.find("missing.txt"));
+        verify(repository, times(1)).findById("missing.txt");
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.api.unittests.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.data.vo.v1.UploadFileResponseVO;
+import com.example.api.exceptions.FileStorageException;
+import com.example.api.exceptions.FileTooLargeException;
+import com.example.api.exceptions.MyFileNotFoundException;
+import com.example.api.model.StoredFile;
+import com.example.api.repositories.StoredFileRepository;
+import com.example.api.services.FileCacheServices;
+import com.example.api.services.FileMetadataServices;
+import com.example.api.services.FileStorageServices;
+import com.example.api.services.FileVariantServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FileStorageServicesTest {
+
+    // SHA-256 de "hello world"
+    private static final String HELLO_SHA256 = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+    @TempDir
+    Path dir;
+
+    FileStorageServices service;
+
+    FileCacheServices hotFiles;
+
+    @BeforeEach
+    void setUp() {
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setHotCacheAdmissionHits(1);
+        hotFiles = new FileCacheServices(config, new SimpleMeterRegistry());
+        service = new FileStorageServices(config,
+                new FileMetadataServices(config, mock(StoredFileRepository.class), new ConcurrentMapCacheManager()),
+                new FileVariantServices(config, hotFiles), hotFiles);
+    }
+
+    @Test
+    void testStoreStreamComputesSizeAndChecksum() throws Exception {
+        var result = service.storeStream("hello.txt", "text/plain",
+                new ByteArrayInputStream("hello world".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("hello.txt", result.getFileName());
+        assertEquals(11, result.getSize());
+        assertEquals(HELLO_SHA256, result.getChecksum());
+        assertEquals("hello world", Files.readString(service.loadFile("hello.txt")));
+        try (var temps = Files.list(dir.resolve(".tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    void testStoreMultipartFileReplacesExisting() throws Exception {
+        service.storeFile(new MockMultipartFile("file", "notes.txt", "text/plain", "v1".getBytes()));
+        service.storeFile(new MockMultipartFile("file", "notes.txt", "text/plain", "v2".getBytes()));
+
+        assertEquals("v2", Files.readString(service.loadFile("notes.txt")));
+    }
+
+    @Test
+    void testRejectsPathSequences() {
+        assertThrows(FileStorageException.class, () -> service.storeStream("../evil.txt", null,
+                new ByteArrayInputStream(new byte[0])));
+        assertThrows(FileStorageException.class, () -> service.storeStream(".tmp", null,
+                new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void testStreamedUploadStopsAtMaxFileSize() throws Exception {
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setMaxFileSize(DataSize.ofBytes(10));
+        service = new FileStorageServices(config,
+                new FileMetadataServices(config, mock(StoredFileRepository.class), new ConcurrentMapCacheManager()),
+                new FileVariantServices(config, hotFiles), hotFiles);
+
+        assertEquals(10, service.storeStream("ten.txt", "text/plain",
+                new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8))).getSize());
+        assertThrows(FileTooLargeException.class, () -> service.storeStream("big.txt", "text/plain",
+                new ByteArrayInputStream("0123456789a".getBytes(StandardCharsets.UTF_8))));
+
+        assertThrows(MyFileNotFoundException.class, () -> service.loadFile("big.txt"));
+        try (var temps = Files.list(dir.resolve(".tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    void testConcurrentUploadsOfOneNameKeepIndexAndDiskTogether() throws Exception {
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        var index = new ConcurrentHashMap<String, StoredFile>();
+        var repository = mock(StoredFileRepository.class);
+        when(repository.save(any(StoredFile.class))).thenAnswer(invocation -> {
+            StoredFile stored = invocation.getArgument(0);
+            // o primeiro upload demora a indexar: sem lock, o segundo renomeia e indexa nesse intervalo
+            if (stored.getSize() == 1) Thread.sleep(200);
+            index.put(stored.getFileName(), stored);
+            return stored;
+        });
+        service = new FileStorageServices(config,
+                new FileMetadataServices(config, repository, new ConcurrentMapCacheManager()),
+                new FileVariantServices(config, hotFiles), hotFiles);
+
+        var first = CompletableFuture.runAsync(() -> service.storeStream("same.txt", "text/plain",
+                new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8))));
+        Thread.sleep(50);
+        service.storeStream("same.txt", "text/plain", new ByteArrayInputStream("bb".getBytes(StandardCharsets.UTF_8)));
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Files.size(service.loadFile("same.txt")), index.get("same.txt").getSize());
+    }
+
+    @Test
+    void testZipDownloadRejectsPathSequences() throws Exception {
+        service.storeStream("a.txt", "text/plain", new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8)));
+        var part = Files.createDirectories(dir.resolve(".uploads")).resolve("0b5f2c6e-5d3a-4f0e-9a44-2d1f0b7c9e11.part");
+        Files.writeString(part, "internal");
+
+        // no layout sharded, ../../ a partir do shard volta à raiz do upload-dir
+        for (var name : List.of("../../.uploads/" + part.getFileName(), ".uploads/" + part.getFileName(), "../a.txt"))
+            assertThrows(MyFileNotFoundException.class, () -> service.loadFiles(List.of("a.txt", name)), name);
+        assertThrows(MyFileNotFoundException.class, () -> service.loadFile("../../.uploads/" + part.getFileName()));
+
+        assertEquals(List.of("a.txt"), List.copyOf(service.loadFiles(List.of("a.txt", "a.txt")).keySet()));
+    }
+
+    @Test
+    void testStoreFilesKeepsInputOrderAndReportsErrors() throws Exception {
+        var files = List.<MultipartFile>of(
+                new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "../evil.txt", "text/plain", "x".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "c.txt", "text/plain", "ccc".getBytes(StandardCharsets.UTF_8)));
+
+        var results = service.storeFiles(files);
+
+        assertEquals(List.of("a.txt", "../evil.txt", "c.txt"),
+                results.stream().map(UploadFileResponseVO::getFileName).toList());
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertNull(results.get(2).getError());
+        assertEquals(3, results.get(2).getSize());
+        assertEquals("ccc", Files.readString(service.loadFile("c.txt")));
+    }
+
+    @Test
+    void testUploadParallelismIsPerRequest() throws Exception {
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setUploadParallelism(1);
+        service = new FileStorageServices(config,
+                new FileMetadataServices(config, mock(StoredFileRepository.class), new ConcurrentMapCacheManager()),
+                new FileVariantServices(config, hotFiles), hotFiles);
+
+        // Os dois pedidos só passam da barreira se gravarem ao mesmo tempo
+        var barrier = new CyclicBarrier(2);
+        var writing = new AtomicInteger();
+        var maxWriting = new AtomicInteger();
+        class BarrierFile extends MockMultipartFile {
+            BarrierFile(String name) {
+                super("files", name, "text/plain", name.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void transferTo(File dest) throws IOException {
+                maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+                try {
+                    if (getOriginalFilename().startsWith("first")) barrier.await(5, TimeUnit.SECONDS);
+                    super.transferTo(dest);
+                } catch (Exception e) {
+                    throw new IOException(e);
+                } finally {
+                    writing.decrementAndGet();
+                }
+            }
+        }
+
+        var other = CompletableFuture.supplyAsync(() -> service.storeFiles(List.of(new BarrierFile("first-b.txt"))));
+        var results = service.storeFiles(List.of(new BarrierFile("first-a.txt"), new BarrierFile("second-a.txt")));
+
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getError());
+        assertNull(other.get(5, TimeUnit.SECONDS).get(0).getError());
+        assertEquals(2, maxWriting.get());
+    }
+
+    @Test
+    void testFilesAreShardedByNameHash() throws Exception {
+        service.storeStream("hello.txt", "text/plain",
+                new ByteArrayInputStream("hello world".getBytes(StandardCharsets.UTF_8)));
+
+        var file = service.loadFile("hello.txt");
+
+        assertEquals("hello.txt", file.getFileName().toString());
+        assertEquals(dir, file.getParent().getParent().getParent());
+        assertFalse(Files.exists(dir.resolve("hello.txt")));
+    }
+
+    @Test
+    void testMigratesFlatFilesKeepingThemReachable() throws Exception {
+        Files.writeString(dir.resolve("legacy.csv"), "a,b");
+        assertEquals(dir.resolve("legacy.csv"), service.loadFile("legacy.csv"));
+
+        assertEquals(1, service.migrateFlatFiles());
+
+        assertFalse(Files.exists(dir.resolve("legacy.csv")));
+        assertEquals("a,b", Files.readString(service.loadFile("legacy.csv")));
+        assertEquals(0, service.migrateFlatFiles());
+    }
+
+    @Test
+    void testOverwriteInvalidatesHotFileCache() throws Exception {
+        service.storeStream("icon.svg", "image/svg+xml", new ByteArrayInputStream("<svg/>".getBytes(StandardCharsets.UTF_8)));
+        var file = service.loadFile("icon.svg");
+        assertEquals("<svg/>", StandardCharsets.UTF_8.decode(hotFiles.get(file, Files.size(file))).toString());
+
+        service.storeStream("icon.svg", "image/svg+xml", new ByteArrayInputStream("<svg></svg>".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("<svg></svg>", StandardCharsets.UTF_8.decode(hotFiles.get(file, Files.size(file))).toString());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.api.unittests.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.services.FileCacheServices;
+import com.example.api.services.FileVariantServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileVariantServicesTest {
+
+    @TempDir
+    Path dir;
+
+    FileVariantServices service;
+
+    @BeforeEach
+    void setUp() {
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        service = new FileVariantServices(config, new FileCacheServices(config, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // A compressão roda em segundo plano
+    private Path awaitGzip(Path file) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var gzip = service.findGzip(file);
+            if (gzip != null) return gzip;
+            Thread.sleep(20);
+        }
+        return null;
+    }
+
+    @Test
+    void testCompressesTextInBackground() throws Exception {
+        var content = "id,name\n".repeat(1000);
+        var file = Files.writeString(dir.resolve("people.csv"), content);
+
+        service.schedule(file, "people.csv");
+        var gzip = awaitGzip(file);
+
+        assertNotNull(gzip);
+        assertTrue(Files.size(gzip) < Files.size(file));
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(gzip)))) {
+            assertEquals(content, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testOverwrittenFileInvalidatesVariant() throws Exception {
+        var file = Files.writeString(dir.resolve("people.csv"), "id,name\n".repeat(1000));
+        service.schedule(file, "people.csv");
+        assertNotNull(awaitGzip(file));
+
+        Files.writeString(file, "id,name\n".repeat(2000));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertNull(service.findGzip(file));
+    }
+
+    @Test
+    void testSameMtimeOverwriteInvalidatesVariant() throws Exception {
+        var file = Files.writeString(dir.resolve("books.csv"), "id,title\n".repeat(1000));
+        service.schedule(file, "books.csv");
+        assertNotNull(awaitGzip(file));
+
+        // Mesmo segundo (ou cópia que preserva o mtime): só o tamanho denuncia a troca
+        var modified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "id,title\n".repeat(1500));
+        Files.setLastModifiedTime(file, modified);
+
+        assertNull(service.findGzip(file));
+    }
+
+    @Test
+    void testSkipsBinaryAndSmallFiles() throws Exception {
+        var small = Files.writeString(dir.resolve("small.txt"), "tiny");
+        service.schedule(small, "small.txt");
+
+        assertFalse(FileVariantServices.isCompressible("photo.jpg"));
+        assertTrue(FileVariantServices.isCompressible("data.json"));
+        assertNull(awaitGzip(small));
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(FileVariantServices.acceptsGzip("gzip, deflate, br"));
+        assertTrue(FileVariantServices.acceptsGzip("*"));
+        assertFalse(FileVariantServices.acceptsGzip("gzip;q=0"));
+        assertFalse(FileVariantServices.acceptsGzip("*;q=1, gzip;q=0"));
+        assertFalse(FileVariantServices.acceptsGzip("identity"));
+        assertFalse(FileVariantServices.acceptsGzip(null));
+    }
+}
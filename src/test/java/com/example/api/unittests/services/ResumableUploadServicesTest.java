@@ -0,0 +1,111 @@
+package com.example.api.unittests.services;
+
+import com.example.api.config.FileStorageConfig;
+import com.example.api.exceptions.FileTooLargeException;
+import com.example.api.exceptions.InvalidUploadException;
+import com.example.api.exceptions.MyFileNotFoundException;
+import com.example.api.exceptions.UploadConflictException;
+import com.example.api.repositories.StoredFileRepository;
+import com.example.api.services.FileCacheServices;
+import com.example.api.services.FileMetadataServices;
+import com.example.api.services.FileStorageServices;
+import com.example.api.services.FileVariantServices;
+import com.example.api.services.ResumableUploadServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResumableUploadServicesTest {
+
+    @TempDir
+    Path dir;
+
+    FileStorageServices storage;
+
+    ResumableUploadServices service;
+
+    @BeforeEach
+    void setUp() {
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setCompressVariants(false);
+        var hotFiles = new FileCacheServices(config, new SimpleMeterRegistry());
+        storage = new FileStorageServices(config,
+                new FileMetadataServices(config, mock(StoredFileRepository.class), new ConcurrentMapCacheManager()),
+                new FileVariantServices(config, hotFiles), hotFiles);
+        service = new ResumableUploadServices(config, storage);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testChunksAreStitchedAndMovedIntoPlace() throws Exception {
+        var session = service.create("video.txt", "text/plain", 11);
+
+        assertEquals(5, service.append(session.getId(), 0, body("hello")).getOffset());
+        assertEquals(5, service.status(session.getId()).getOffset());
+        assertTrue(service.append(session.getId(), 5, body(" world")).isComplete());
+
+        var response = service.complete(session.getId());
+
+        assertEquals("video.txt", response.getFileName());
+        assertEquals(11, response.getSize());
+        assertEquals("hello world", Files.readString(storage.loadFile("video.txt")));
+        assertThrows(MyFileNotFoundException.class, () -> service.status(session.getId()));
+    }
+
+    @Test
+    void testWrongOffsetIsConflict() {
+        var session = service.create("video.txt", null, 11);
+        service.append(session.getId(), 0, body("hello"));
+
+        assertThrows(UploadConflictException.class, () -> service.append(session.getId(), 3, body("lo world")));
+        assertEquals(5, service.status(session.getId()).getOffset());
+    }
+
+    @Test
+    void testIncompleteUploadCannotComplete() {
+        var session = service.create("video.txt", null, 11);
+        service.append(session.getId(), 0, body("hello"));
+
+        assertThrows(UploadConflictException.class, () -> service.complete(session.getId()));
+    }
+
+    @Test
+    void testChunkBeyondLengthIsRejected() {
+        var session = service.create("video.txt", null, 5);
+
+        assertThrows(InvalidUploadException.class, () -> service.append(session.getId(), 0, body("hello world")));
+        assertEquals(5, service.status(session.getId()).getOffset());
+    }
+
+    @Test
+    void testLengthAboveMaxFileSizeIsRejectedOnCreate() throws Exception {
+        assertThrows(FileTooLargeException.class,
+                () -> service.create("video.txt", null, DataSize.ofMegabytes(200).toBytes() + 1));
+        try (var sessions = Files.list(dir.resolve(".uploads"))) {
+            assertEquals(0, sessions.count());
+        }
+        assertEquals(0, service.create("video.txt", null, DataSize.ofMegabytes(200).toBytes()).getOffset());
+    }
+
+    @Test
+    void testUnknownOrMalformedIdIsNotFound() {
+        assertThrows(MyFileNotFoundException.class, () -> service.status("../../etc/passwd"));
+        assertThrows(MyFileNotFoundException.class, () -> service.status("6f1c1a5e-0000-4000-8000-000000000000"));
+    }
+}
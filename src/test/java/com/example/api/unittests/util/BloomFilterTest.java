@@ -0,0 +1,29 @@
+package com.example.api.unittests.util;
+
+import com.example.api.util.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegativesAndLowFalsePositiveRate() {
+        var filter = new BloomFilter(10000, 0.01);
+        var inserted = new String[10000];
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = UUID.randomUUID().toString();
+            filter.put(inserted[i]);
+        }
+
+        for (String value : inserted) assertTrue(filter.mightContain(value));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
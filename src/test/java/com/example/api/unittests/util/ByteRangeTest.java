@@ -0,0 +1,34 @@
+package com.example.api.unittests.util;
+
+import com.example.api.util.ByteRange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void testParsesSingleRanges() {
+        var range = ByteRange.parse("bytes=10-19", 100);
+        assertEquals(10, range.getStart());
+        assertEquals(19, range.getEnd());
+        assertEquals("bytes 10-19/100", range.toContentRange(100));
+
+        assertEquals(99, ByteRange.parse("bytes=50-", 100).getEnd());
+        assertEquals(99, ByteRange.parse("bytes=50-500", 100).getEnd());
+        assertEquals(90, ByteRange.parse("bytes=-10", 100).getStart());
+        assertEquals(0, ByteRange.parse("bytes=-500", 100).getStart());
+    }
+
+    @Test
+    void testIgnoresOrRejectsInvalidRanges() {
+        assertNull(ByteRange.parse(null, 100));
+        assertNull(ByteRange.parse("items=0-1", 100));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 100));
+        assertNull(ByteRange.parse("bytes=20-10", 100));
+        assertNull(ByteRange.parse("bytes=a-b", 100));
+
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=100-", 100));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 100));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.api.unittests.util;
+
+import com.example.api.converter.mocks.MockPerson;
+import com.example.api.exceptions.PreconditionFailedException;
+import com.example.api.util.ETags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    MockPerson input = new MockPerson();
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testSingleResourceETagPerRepresentation() {
+        var vo = input.mockVO(1);
+        vo.setVersion(4L);
+
+        assertEquals("\"1-4+json\"", ETags.of(vo));
+
+        accept("application/xml;q=0.9, application/x-yaml");
+        assertEquals("\"1-4+yaml\"", ETags.of(vo));
+
+        accept("text/html, application/xml");
+        assertEquals("\"1-4+xml\"", ETags.of(vo));
+
+        accept("*/*");
+        assertEquals("\"1-4+json\"", ETags.of(vo));
+    }
+
+    @Test
+    void testResponsesVaryByAccept() {
+        var vo = input.mockVO(1);
+        vo.setVersion(4L);
+        accept("application/xml");
+
+        var headers = ETags.ok(vo).body(vo).getHeaders();
+
+        assertEquals("\"1-4+xml\"", headers.getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), headers.getVary());
+    }
+
+    @Test
+    void testCheckIfMatch() {
+        var vo = input.mockVO(1);
+        vo.setVersion(3L);
+
+        assertDoesNotThrow(() -> ETags.checkIfMatch(null, vo));
+        assertDoesNotThrow(() -> ETags.checkIfMatch("*", vo));
+        assertDoesNotThrow(() -> ETags.checkIfMatch("\"1-3+json\"", vo));
+        assertDoesNotThrow(() -> ETags.checkIfMatch("\"1-3+xml\"", vo));
+        assertDoesNotThrow(() -> ETags.checkIfMatch("\"1-2+json\", \"1-3+yaml\"", vo));
+
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkIfMatch("\"999-3+json\"", vo));
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkIfMatch("\"1-2+json\"", vo));
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkIfMatch("W/\"1-3+json\"", vo));
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkIfMatch("\"abc\"", vo));
+    }
+
+    @Test
+    void testPageETagChangesWithVersions() {
+        var vo = input.mockVO(1);
+        vo.setVersion(0L);
+        var metadata = new PagedModel.PageMetadata(12, 0, 1);
+
+        var before = ETags.of(PagedModel.of(List.of(EntityModel.of(vo)), metadata));
+        assertEquals(before, ETags.of(PagedModel.of(List.of(EntityModel.of(vo)), metadata)));
+
+        vo.setVersion(1L);
+        assertNotEquals(before, ETags.of(PagedModel.of(List.of(EntityModel.of(vo)), metadata)));
+
+        var json = ETags.of(PagedModel.of(List.of(EntityModel.of(vo)), metadata));
+        accept("application/xml");
+        assertNotEquals(json, ETags.of(PagedModel.of(List.of(EntityModel.of(vo)), metadata)));
+    }
+
+    private void accept(String accept) {
+        var request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}